@@ -1,10 +1,16 @@
 package app;
 
 import com.google.gson.Gson;
+import graph.cache.ResultCache;
+import graph.cc.ParallelConnectedComponents;
 import graph.common.Graph;
 import graph.common.Metrics;
 import graph.dagsp.DagShortestPaths;
+import graph.dagsp.ParallelDagShortestPaths;
+import graph.dagsp.PointToPointPaths;
+import graph.pipeline.ReachableAnalyzer;
 import graph.scc.CondensationGraphBuilder;
+import graph.scc.PartitionedSCC;
 import graph.scc.TarjanSCC;
 
 import java.io.IOException;
@@ -25,9 +31,27 @@ import java.util.List;
  *       on the condensation graph.</li>
  *   <li>Prints metrics and timing for each step.</li>
  * </ol>
+ * With the {@code --lazy} flag only the part of the graph reachable from the
+ * source is analysed (see {@link ReachableAnalyzer}); with {@code --parallel}
+ * the DAG path phases use {@link ParallelDagShortestPaths}; with
+ * {@code --cache <dir>} results are reused from and saved to a {@link ResultCache};
+ * with {@code --partitions <k>} SCCs and the condensation of a directed graph are
+ * computed by {@link PartitionedSCC} across k local worker processes (undirected
+ * inputs are rejected). That
+ * spreads the SCC work but does not reduce this JVM's memory, and components are
+ * then numbered by their smallest vertex, so the printed component ids and
+ * topological order differ from a Tarjan run while describing the same SCCs.
+ * Undirected inputs are decomposed into connected components with
+ * {@link ParallelConnectedComponents} instead of Tarjan's algorithm.
  */
 public class Main {
 
+    /** Files at least this large are parsed with {@link ParallelJsonLoader}. */
+    static final long PARALLEL_LOAD_THRESHOLD = 64L << 20;
+
+    /** Size bound of the result cache directory used with {@code --cache}. */
+    static final long CACHE_MAX_BYTES = 1L << 30;
+
     static class JsonEdge {
         int u;
         int v;
@@ -39,16 +63,59 @@ public class Main {
         int n;
         JsonEdge[] edges;
         Integer source;
+        Integer target;
         String weight_model;
     }
 
     /**
-     * Loads a graph from the given JSON file path using Gson.
+     * A loaded input file: the graph with its source and optional target task.
+     */
+    public static class Input {
+        public final Graph graph;
+        public final int source;
+        /** Target task, or -1 if the file has none. */
+        public final int target;
+
+        public Input(Graph graph, int source, int target) {
+            this.graph = graph;
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Loads a graph from the given JSON file path.
      *
-     * @param path path to a JSON file in the /data directory
+     * @param path      path to a JSON file in the /data directory
+     * @param sourceOut sourceOut[0] receives the source vertex
      * @return loaded Graph instance
      */
     public static Graph loadGraph(String path, int[] sourceOut) throws IOException {
+        Input input = loadInput(path);
+        sourceOut[0] = input.source;
+        return input.graph;
+    }
+
+    /**
+     * Loads a graph with its source and target from the given JSON file path
+     * using Gson, or with {@link ParallelJsonLoader} for files of at least
+     * {@link #PARALLEL_LOAD_THRESHOLD} bytes.
+     *
+     * @param path path to a JSON file in the /data directory
+     * @return loaded graph, source and target
+     */
+    public static Input loadInput(String path) throws IOException {
+        if (Files.size(Path.of(path)) >= PARALLEL_LOAD_THRESHOLD) {
+            ParallelJsonLoader.Loaded loaded = ParallelJsonLoader.load(
+                    Path.of(path), Runtime.getRuntime().availableProcessors());
+            System.out.println("Loaded graph: n=" + loaded.n +
+                    ", edges=" + loaded.edgeCount() +
+                    ", weight_model=" + loaded.weightModel);
+            return new Input(loaded.toGraph(),
+                    loaded.source != null ? loaded.source : 0,
+                    loaded.target != null ? loaded.target : -1);
+        }
+
         String json = Files.readString(Path.of(path));
         Gson gson = new Gson();
         JsonGraph jg = gson.fromJson(json, JsonGraph.class);
@@ -58,56 +125,127 @@ public class Main {
             g.addEdge(e.u, e.v, e.w);
         }
 
-        if (jg.source != null) {
-            sourceOut[0] = jg.source;
-        } else {
-            sourceOut[0] = 0;
-        }
-
         System.out.println("Loaded graph: n=" + jg.n +
                 ", edges=" + jg.edges.length +
                 ", weight_model=" + jg.weight_model);
-        return g;
+        return new Input(g, jg.source != null ? jg.source : 0, jg.target != null ? jg.target : -1);
     }
 
     /**
      * Command line entry point.
      *
      * @param args args[0] must be the path to a JSON input file
-     *             (e.g. data/tasks.json)
+     *             (e.g. data/tasks.json), optionally followed by {@code --lazy}
+     *             and/or {@code --parallel}, {@code --cache <dir>} and
+     *             {@code --partitions <k>}
      */
     public static void main(String[] args) throws Exception {
         if (args.length < 1) {
-            System.err.println("Usage: java app.Main <path-to-tasks.json>");
+            System.err.println("Usage: java app.Main <path-to-tasks.json> [--lazy] [--parallel] [--cache <dir>] [--partitions <k>]");
+            return;
+        }
+        boolean lazy = false;
+        boolean parallel = false;
+        Path cacheDir = null;
+        int partitions = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--lazy")) {
+                lazy = true;
+            } else if (args[i].equals("--parallel")) {
+                parallel = true;
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheDir = Path.of(args[++i]);
+            } else if (args[i].equals("--partitions") && i + 1 < args.length) {
+                partitions = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+
+        if (lazy && (parallel || cacheDir != null || partitions > 0)) {
+            System.err.println("--lazy cannot be combined with --parallel, --cache or --partitions");
+            return;
+        }
+
+        Input input = loadInput(args[0]);
+        Graph g = input.graph;
+        int source = input.source;
+        int target = input.target;
+
+        if (partitions > 0 && !g.isDirected()) {
+            System.err.println("--partitions needs a directed graph");
+            return;
+        }
+
+        if (lazy) {
+            runLazy(g, source, target);
             return;
         }
 
-        int[] sourceHolder = new int[1];
-        Graph g = loadGraph(args[0], sourceHolder);
-        int source = sourceHolder[0];
+        ResultCache cache = cacheDir != null ? new ResultCache(cacheDir, CACHE_MAX_BYTES) : null;
+        String cacheKey = cache != null ? ResultCache.key(g) : null;
+        ResultCache.Entry cached = cache != null ? cache.load(cacheKey) : null;
+        if (cache != null) {
+            System.out.println("Result cache " + (cached != null ? "hit" : "miss") + ": " + cacheKey);
+        }
 
         Metrics sccMetrics = new Metrics();
-        TarjanSCC tarjan = new TarjanSCC(g, sccMetrics);
-        TarjanSCC.Result sccRes = tarjan.run();
+        TarjanSCC.Result sccRes;
+        Graph partitionedDag = null;
+        if (cached != null) {
+            sccRes = cached.scc;
+        } else if (partitions > 0) {
+            PartitionedSCC.Result partitioned =
+                    new PartitionedSCC(g, partitions, PartitionedSCC.Mode.PROCESSES, sccMetrics).run();
+            sccRes = partitioned.scc;
+            partitionedDag = partitioned.condensation;
+        } else if (g.isDirected()) {
+            sccRes = new TarjanSCC(g, sccMetrics).run();
+        } else {
+            sccRes = new ParallelConnectedComponents(g, sccMetrics).run();
+        }
 
-        System.out.println("=== Strongly Connected Components (SCC) ===");
+        System.out.println(g.isDirected()
+                ? "=== Strongly Connected Components (SCC) ==="
+                : "=== Connected Components (undirected) ===");
         int cid = 0;
         for (List<Integer> comp : sccRes.components) {
             System.out.println("Component " + cid + " (size=" + comp.size() + "): " + comp);
             cid++;
         }
-        System.out.printf(
-                "Tarjan: dfsVisits=%d, dfsEdges=%d, time=%.3f ms%n",
-                sccMetrics.dfsVisits,
-                sccMetrics.dfsEdges,
-                sccMetrics.getElapsedMillis()
-        );
+        if (partitionedDag != null) {
+            System.out.printf(
+                    "Partitioned (%d workers): quotientVisits=%d, quotientEdges=%d, time=%.3f ms%n",
+                    partitions,
+                    sccMetrics.dfsVisits,
+                    sccMetrics.dfsEdges,
+                    sccMetrics.getElapsedMillis()
+            );
+        } else if (g.isDirected()) {
+            System.out.printf(
+                    "Tarjan: dfsVisits=%d, dfsEdges=%d, time=%.3f ms%n",
+                    sccMetrics.dfsVisits,
+                    sccMetrics.dfsEdges,
+                    sccMetrics.getElapsedMillis()
+            );
+        } else {
+            System.out.printf(
+                    "Union-find: vertices=%d, edges=%d, time=%.3f ms%n",
+                    sccMetrics.dfsVisits,
+                    sccMetrics.dfsEdges,
+                    sccMetrics.getElapsedMillis()
+            );
+        }
 
 
         Metrics condMetrics = new Metrics();
-        Graph dag = CondensationGraphBuilder.buildCondensation(
-                g, sccRes.compId, sccRes.components.size(), condMetrics
-        );
+        Graph dag = cached != null
+                ? cached.dag
+                : partitionedDag != null
+                ? partitionedDag
+                : CondensationGraphBuilder.buildCondensation(
+                        g, sccRes.compId, sccRes.components.size(), condMetrics);
 
         System.out.println("\n=== Condensation DAG ===");
         for (int u = 0; u < dag.n(); u++) {
@@ -119,7 +257,11 @@ public class Main {
         }
 
         Metrics topoMetrics = new Metrics();
-        List<Integer> topoOrder = graph.topo.TopologicalSort.kahn(dag, topoMetrics);
+        List<Integer> topoOrder = cached != null
+                ? cached.topo
+                : graph.topo.TopologicalSort.kahn(dag, topoMetrics);
+        ResultCache.Entry entry = cached != null ? cached : new ResultCache.Entry(sccRes, dag, topoOrder);
+        boolean cacheDirty = cached == null;
 
         System.out.println("\n=== Topological order of components ===");
         System.out.println(topoOrder);
@@ -141,8 +283,15 @@ public class Main {
         System.out.println("\n=== Shortest paths on condensation DAG ===");
         System.out.println("Source task = " + source + ", component = " + sourceComp);
 
-        DagShortestPaths.Result shortest =
-                DagShortestPaths.shortestPaths(dag, sourceComp, spMetrics);
+        ParallelDagShortestPaths wavefront = parallel ? new ParallelDagShortestPaths(dag) : null;
+        DagShortestPaths.Result shortest = entry.shortest.get(sourceComp);
+        if (shortest == null) {
+            shortest = parallel
+                    ? wavefront.shortestPaths(sourceComp, spMetrics)
+                    : DagShortestPaths.shortestPaths(dag, sourceComp, topoOrder, spMetrics);
+            entry.shortest.put(sourceComp, shortest);
+            cacheDirty = true;
+        }
 
         long INF = Long.MAX_VALUE / 8;
         for (int v = 0; v < dag.n(); v++) {
@@ -166,8 +315,14 @@ public class Main {
 
         Metrics longMetrics = new Metrics();
         System.out.println("\n=== Longest paths (critical path) on condensation DAG ===");
-        DagShortestPaths.Result longest =
-                DagShortestPaths.longestPaths(dag, sourceComp, longMetrics);
+        DagShortestPaths.Result longest = entry.longest.get(sourceComp);
+        if (longest == null) {
+            longest = parallel
+                    ? wavefront.longestPaths(sourceComp, longMetrics)
+                    : DagShortestPaths.longestPaths(dag, sourceComp, topoOrder, longMetrics);
+            entry.longest.put(sourceComp, longest);
+            cacheDirty = true;
+        }
 
         int criticalTarget = DagShortestPaths.findCriticalTarget(longest);
         List<Integer> criticalPath =
@@ -180,6 +335,83 @@ public class Main {
                 longMetrics.getElapsedMillis()
         );
 
+        if (target >= 0) {
+            int targetComp = sccRes.compId[target];
+            Metrics p2pMetrics = new Metrics();
+            PointToPointPaths queries = new PointToPointPaths(dag, topoOrder);
+            System.out.println("\n=== Point-to-point query on condensation DAG ===");
+            System.out.println("Source component = " + sourceComp + ", target task = " + target
+                    + ", component = " + targetComp);
+            PointToPointPaths.Result sp = queries.shortestPath(sourceComp, targetComp, p2pMetrics);
+            if (sp.isReachable()) {
+                PointToPointPaths.Result lp = queries.longestPath(sourceComp, targetComp, p2pMetrics);
+                System.out.println("Shortest: length = " + sp.distance + ", path = " + sp.path);
+                System.out.println("Longest: length = " + lp.distance + ", path = " + lp.path);
+            } else {
+                System.out.println("Target is not reachable from the source");
+            }
+            System.out.printf("Relaxations (point-to-point) = %d%n", p2pMetrics.relaxations);
+        }
+
+        if (cache != null && cacheDirty) {
+            cache.store(cacheKey, entry);
+        }
+
+    }
+
+    /**
+     * Runs the pipeline only on the part of the graph reachable from the source.
+     *
+     * @param g      loaded graph
+     * @param source source task
+     * @param target optional target task, or -1
+     */
+    static void runLazy(Graph g, int source, int target) {
+        Metrics lazyMetrics = new Metrics();
+        ReachableAnalyzer analyzer = new ReachableAnalyzer(g, lazyMetrics);
+        ReachableAnalyzer.Region region = analyzer.regionFor(source);
+        int sourceComp = region.componentOf(source);
+
+        System.out.println("=== Reachable region of task " + source + " ===");
+        System.out.println("Vertices = " + region.size() + " of " + g.n()
+                + ", components = " + region.dag.n());
+        for (int c : region.topo) {
+            System.out.println("Component " + c + " -> " + region.globalComponent(c));
+        }
+
+        DagShortestPaths.Result shortest = analyzer.shortestPaths(source);
+        System.out.println("\n=== Shortest paths on reachable condensation DAG ===");
+        System.out.println("Source task = " + source + ", component = " + sourceComp);
+        for (int v = 0; v < region.dag.n(); v++) {
+            System.out.println("dist[" + v + "] = " + shortest.dist[v]
+                    + ", path = " + DagShortestPaths.reconstructPath(v, shortest));
+        }
+
+        DagShortestPaths.Result longest = analyzer.longestPaths(source);
+        int criticalTarget = DagShortestPaths.findCriticalTarget(longest);
+        System.out.println("\n=== Longest paths (critical path) on reachable condensation DAG ===");
+        System.out.println("Critical path (components): "
+                + DagShortestPaths.reconstructPath(criticalTarget, longest));
+        System.out.println("Critical path length = " + longest.dist[criticalTarget]);
 
+        if (target >= 0) {
+            System.out.println("\n=== Point-to-point query on reachable condensation DAG ===");
+            if (region.contains(target)) {
+                int targetComp = region.componentOf(target);
+                System.out.println("Target task = " + target + ", component = " + targetComp);
+                System.out.println("Shortest: length = " + shortest.dist[targetComp]
+                        + ", path = " + DagShortestPaths.reconstructPath(targetComp, shortest));
+                System.out.println("Longest: length = " + longest.dist[targetComp]
+                        + ", path = " + DagShortestPaths.reconstructPath(targetComp, longest));
+            } else {
+                System.out.println("Target is not reachable from the source");
+            }
+        }
+        System.out.printf(
+                "dfsVisits=%d, dfsEdges=%d, relaxations=%d%n",
+                lazyMetrics.dfsVisits,
+                lazyMetrics.dfsEdges,
+                lazyMetrics.relaxations
+        );
     }
 }
@@ -0,0 +1,482 @@
+package app;
+
+import graph.common.Graph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded loader for large task files in the {@code tasks.json} format.
+ * <p>
+ * The file is memory-mapped and the top-level fields are read sequentially up to
+ * the {@code edges} array. The array is then cut into byte ranges that are parsed
+ * in parallel: each range skips forward to the first {@code '{'} it contains and
+ * owns every edge object that starts inside it, so ranges never need to agree on
+ * boundaries up front. Edge objects are parsed by a hand-written scanner into a
+ * per-range {@code int} buffer of (u, v, w) triples; no objects are created per
+ * edge. The buffers are concatenated in file order, so the resulting graph is the
+ * same as the one built by {@link Main#loadGraph}.
+ * <p>
+ * Strings inside edge objects must not contain braces or brackets, which holds
+ * for the task file format (edge objects only have numeric fields).
+ */
+public final class ParallelJsonLoader {
+
+    /** Target number of bytes parsed by one task. */
+    private static final long CHUNK_BYTES = 16L << 20;
+
+    /** Bytes mapped past the end of a range, for the edge object that straddles it. */
+    private static final long OVERLAP_BYTES = 1L << 20;
+
+    /** Largest int[] most JVMs will allocate. */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private ParallelJsonLoader() {
+        // utility class
+    }
+
+    /**
+     * Contents of a task file with edges stored as flat (u, v, w) triples.
+     */
+    public static class Loaded {
+        public final int n;
+        public final boolean directed;
+        public final Integer source;
+        public final Integer target;
+        public final String weightModel;
+
+        /** edges[3i], edges[3i+1], edges[3i+2] are u, v and w of the i-th edge. */
+        public final int[] edges;
+
+        Loaded(int n, boolean directed, Integer source, Integer target, String weightModel, int[] edges) {
+            this.n = n;
+            this.directed = directed;
+            this.source = source;
+            this.target = target;
+            this.weightModel = weightModel;
+            this.edges = edges;
+        }
+
+        public int edgeCount() {
+            return edges.length / 3;
+        }
+
+        /**
+         * Builds a {@link Graph} with the edges in file order.
+         */
+        public Graph toGraph() {
+            Graph g = new Graph(n, directed);
+            for (int i = 0; i < edges.length; i += 3) {
+                g.addEdge(edges[i], edges[i + 1], edges[i + 2]);
+            }
+            return g;
+        }
+    }
+
+    /** Top-level fields collected from the parts of the file around the edges array. */
+    private static final class Header {
+        int n;
+        boolean directed;
+        Integer source;
+        Integer target;
+        String weightModel;
+    }
+
+    /** Result of parsing one byte range of the edges array. */
+    private static final class Chunk {
+        final long start;
+        int[] edges = new int[3 * 1024];
+        int size;
+
+        /** Absolute position of the closing ']' if this range reached it, otherwise -1. */
+        long arrayEnd = -1;
+        RuntimeException error;
+
+        Chunk(long start) {
+            this.start = start;
+        }
+
+        void add(int u, int v, int w) {
+            if (size + 3 > edges.length) {
+                edges = Arrays.copyOf(edges, edges.length * 2);
+            }
+            edges[size++] = u;
+            edges[size++] = v;
+            edges[size++] = w;
+        }
+    }
+
+    /**
+     * Loads a task file using {@code threads} parser threads.
+     *
+     * @param path    JSON task file
+     * @param threads number of parser threads
+     * @return parsed file contents
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid task file
+     */
+    public static Loaded load(Path path, int threads) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Header header = new Header();
+
+            Scanner head = new Scanner(channel, 0, size);
+            head.expect('{');
+            long arrayStart = -1;
+            if (!head.tryConsume('}')) {
+                do {
+                    String key = head.readString();
+                    head.expect(':');
+                    if (key.equals("edges")) {
+                        head.expect('[');
+                        arrayStart = head.position();
+                        break;
+                    }
+                    readField(head, key, header);
+                } while (head.tryConsume(','));
+            }
+            if (arrayStart < 0) {
+                throw new IllegalArgumentException("Task file has no \"edges\" array: " + path);
+            }
+
+            List<Chunk> chunks = parseEdges(channel, arrayStart, size, threads);
+
+            long arrayEnd = Long.MAX_VALUE;
+            for (Chunk c : chunks) {
+                if (c.arrayEnd >= 0) {
+                    arrayEnd = Math.min(arrayEnd, c.arrayEnd);
+                }
+            }
+            if (arrayEnd == Long.MAX_VALUE) {
+                throw new IllegalArgumentException("Unterminated \"edges\" array in " + path);
+            }
+
+            long total = 0;
+            for (Chunk c : chunks) {
+                if (c.start <= arrayEnd) {
+                    if (c.error != null) {
+                        throw c.error;
+                    }
+                    total += c.size;
+                }
+            }
+            if (total > MAX_ARRAY_LENGTH) {
+                throw new IllegalArgumentException("Too many edges in " + path + ": " + total / 3
+                        + " edges need " + total + " ints, more than fit in one array");
+            }
+            int[] edges = new int[(int) total];
+            int offset = 0;
+            for (Chunk c : chunks) {
+                if (c.start <= arrayEnd) {
+                    System.arraycopy(c.edges, 0, edges, offset, c.size);
+                    offset += c.size;
+                }
+            }
+
+            Scanner tail = new Scanner(channel, arrayEnd + 1, size);
+            while (tail.tryConsume(',')) {
+                String key = tail.readString();
+                tail.expect(':');
+                readField(tail, key, header);
+            }
+            tail.expect('}');
+
+            return new Loaded(header.n, header.directed, header.source, header.target,
+                    header.weightModel, edges);
+        }
+    }
+
+    private static List<Chunk> parseEdges(FileChannel channel, long from, long to, int threads) throws IOException {
+        long chunkBytes = Math.max(1, Math.min(CHUNK_BYTES, (to - from + threads - 1) / threads));
+        List<Chunk> chunks = new ArrayList<>();
+        for (long start = from; start < to; start += chunkBytes) {
+            chunks.add(new Chunk(start));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks.size());
+            for (Chunk c : chunks) {
+                long end = Math.min(to, c.start + chunkBytes);
+                futures.add(pool.submit(() -> {
+                    try {
+                        parseChunk(channel, c, end, to);
+                    } catch (RuntimeException e) {
+                        // only fatal if the range turns out to lie inside the array
+                        c.error = e;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading edges", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load edges", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses every edge object whose opening brace lies in [c.start, end).
+     */
+    private static void parseChunk(FileChannel channel, Chunk c, long end, long fileSize) {
+        Scanner s = new Scanner(channel, c.start, Math.min(fileSize, end + OVERLAP_BYTES));
+        // skip to the first object (or the end of the array) in this range
+        int b;
+        while ((b = s.peek()) != '{' && b != ']') {
+            s.skip();
+            if (s.position() >= end) {
+                return;
+            }
+        }
+        while (true) {
+            if (s.position() >= end) {
+                return;
+            }
+            if (s.peek() == ']') {
+                c.arrayEnd = s.position();
+                return;
+            }
+            parseEdge(s, c);
+            if (!s.tryConsume(',')) {
+                s.skipWhitespace();
+                if (s.peek() != ']') {
+                    throw s.error("',' or ']'");
+                }
+                c.arrayEnd = s.position();
+                return;
+            }
+            s.skipWhitespace();
+        }
+    }
+
+    private static void parseEdge(Scanner s, Chunk c) {
+        s.expect('{');
+        int u = 0;
+        int v = 0;
+        int w = 0;
+        if (!s.tryConsume('}')) {
+            do {
+                s.skipWhitespace();
+                s.expect('"');
+                int key = s.next();
+                if (s.next() != '"') {
+                    // not a single-letter key: finish the name and ignore the value
+                    s.skipStringRest();
+                    s.expect(':');
+                    s.skipValue();
+                    continue;
+                }
+                s.expect(':');
+                int value = s.readInt();
+                if (key == 'u') {
+                    u = value;
+                } else if (key == 'v') {
+                    v = value;
+                } else if (key == 'w') {
+                    w = value;
+                }
+            } while (s.tryConsume(','));
+            s.expect('}');
+        }
+        c.add(u, v, w);
+    }
+
+    private static void readField(Scanner s, String key, Header header) {
+        switch (key) {
+            case "n" -> header.n = s.readInt();
+            case "directed" -> header.directed = s.readBoolean();
+            case "source" -> header.source = s.readNullableInt();
+            case "target" -> header.target = s.readNullableInt();
+            case "weight_model" -> header.weightModel = s.readNullableString();
+            default -> s.skipValue();
+        }
+    }
+
+    /**
+     * Byte-level JSON scanner over a memory-mapped window of the file.
+     * Only what the task format needs is supported.
+     */
+    private static final class Scanner {
+        private final MappedByteBuffer buf;
+        private final long base;
+        private int pos;
+
+        Scanner(FileChannel channel, long from, long to) {
+            try {
+                long length = Math.min(to - from, Integer.MAX_VALUE);
+                this.buf = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.max(0, length));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot map task file at offset " + from, e);
+            }
+            this.base = from;
+        }
+
+        long position() {
+            return base + pos;
+        }
+
+        int peek() {
+            if (pos >= buf.limit()) {
+                throw error("more input");
+            }
+            return buf.get(pos);
+        }
+
+        int next() {
+            int b = peek();
+            pos++;
+            return b;
+        }
+
+        void skip() {
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (pos < buf.limit()) {
+                byte b = buf.get(pos);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        void expect(char c) {
+            skipWhitespace();
+            if (next() != c) {
+                pos--;
+                throw error("'" + c + "'");
+            }
+        }
+
+        boolean tryConsume(char c) {
+            skipWhitespace();
+            if (pos < buf.limit() && buf.get(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        int readInt() {
+            skipWhitespace();
+            boolean negative = tryConsume('-');
+            int b = peek();
+            if (b < '0' || b > '9') {
+                throw error("a number");
+            }
+            long limit = negative ? Integer.MAX_VALUE + 1L : Integer.MAX_VALUE;
+            long value = 0;
+            while (pos < buf.limit() && (b = buf.get(pos)) >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                if (value > limit) {
+                    throw error("a 32-bit integer");
+                }
+                pos++;
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        Integer readNullableInt() {
+            return tryLiteral("null") ? null : readInt();
+        }
+
+        boolean readBoolean() {
+            if (tryLiteral("true")) {
+                return true;
+            }
+            if (tryLiteral("false")) {
+                return false;
+            }
+            throw error("true or false");
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            int b;
+            while ((b = next()) != '"') {
+                if (b == '\\') {
+                    b = next();
+                }
+                sb.append((char) b);
+            }
+            return sb.toString();
+        }
+
+        String readNullableString() {
+            return tryLiteral("null") ? null : readString();
+        }
+
+        void skipStringRest() {
+            int b;
+            while ((b = next()) != '"') {
+                if (b == '\\') {
+                    next();
+                }
+            }
+        }
+
+        void skipValue() {
+            skipWhitespace();
+            int b = peek();
+            if (b == '"') {
+                skip();
+                skipStringRest();
+            } else if (b == '{' || b == '[') {
+                int depth = 0;
+                do {
+                    b = next();
+                    if (b == '"') {
+                        skipStringRest();
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                } while (depth > 0);
+            } else {
+                while (pos < buf.limit() && (b = buf.get(pos)) != ',' && b != '}' && b != ']') {
+                    pos++;
+                }
+            }
+        }
+
+        private boolean tryLiteral(String literal) {
+            skipWhitespace();
+            if (pos + literal.length() > buf.limit()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (buf.get(pos + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        IllegalArgumentException error(String expected) {
+            return new IllegalArgumentException("Malformed task file at byte " + position()
+                    + ": expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package graph.cache;
+
+import graph.common.Graph;
+import graph.dagsp.DagShortestPaths;
+import graph.scc.TarjanSCC;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * On-disk cache of analysis results keyed by the content hash of a graph.
+ * <p>
+ * For every distinct graph the cache keeps one binary file with the SCCs
+ * ({@code compId} and component lists), the condensation DAG in CSR form, its
+ * topological order and any single-source shortest/longest path results computed
+ * so far. On a hit {@code TarjanSCC}, {@code CondensationGraphBuilder} and
+ * {@code TopologicalSort} can be skipped entirely.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * int magic, int format version, byte[32] graph hash,
+ * payload: int n, int compCount, int[n] compId,
+ *          per component: int size, int[size] vertices,
+ *          int[compCount + 1] dag offsets, int[m] dag targets, int[m] dag weights,
+ *          int[compCount] topological order,
+ *          int resultCount, per result: byte kind, int source,
+ *                                       long[compCount] dist, int[compCount] parent,
+ * int CRC32 of the payload
+ * </pre>
+ * Files are read through a memory mapping and rejected (and deleted) if the
+ * magic, version, hash or checksum do not match. The total size of the cache
+ * directory is bounded; when it is exceeded the least recently used files are
+ * removed. A hit refreshes the file's modification time, which serves as its
+ * access time. Temporary files older than an hour, left behind by writers that
+ * died before renaming them, count towards the bound and are removed first.
+ */
+public class ResultCache {
+
+    private static final int MAGIC = 0x47534343; // "GSCC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 8 + HASH_BYTES;
+    private static final String SUFFIX = ".bin";
+
+    /** Age after which a temporary file is considered abandoned by its writer. */
+    private static final long STALE_PART_MILLIS = 60 * 60 * 1000;
+
+    private static final byte SHORTEST = 0;
+    private static final byte LONGEST = 1;
+
+    /**
+     * Cached analysis of one graph. The path result maps are keyed by source
+     * component and may be extended and stored again.
+     */
+    public static class Entry {
+        public final TarjanSCC.Result scc;
+        public final Graph dag;
+        public final List<Integer> topo;
+        public final Map<Integer, DagShortestPaths.Result> shortest = new TreeMap<>();
+        public final Map<Integer, DagShortestPaths.Result> longest = new TreeMap<>();
+
+        public Entry(TarjanSCC.Result scc, Graph dag, List<Integer> topo) {
+            this.scc = scc;
+            this.dag = dag;
+            this.topo = topo;
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+
+    /**
+     * Opens (and creates if needed) a cache directory.
+     *
+     * @param dir      directory holding cache files
+     * @param maxBytes upper bound for the total size of cache files
+     * @throws IOException if the directory cannot be created
+     */
+    public ResultCache(Path dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Computes the cache key of a graph: SHA-256 over the vertex count, the
+     * direction flag and every adjacency list in order, as hex string.
+     *
+     * @param g graph to hash
+     * @return 64-character hex key
+     */
+    public static String key(Graph g) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(1 << 13);
+        buf.put((byte) (g.isDirected() ? 1 : 0)).putInt(g.n());
+        for (int u = 0; u < g.n(); u++) {
+            List<Graph.Edge> edges = g.neighbors(u);
+            buf = flushIfFull(digest, buf, 4);
+            buf.putInt(edges.size());
+            for (Graph.Edge e : edges) {
+                buf = flushIfFull(digest, buf, 8);
+                buf.putInt(e.to).putInt(e.weight);
+            }
+        }
+        buf.flip();
+        digest.update(buf);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static ByteBuffer flushIfFull(MessageDigest digest, ByteBuffer buf, int needed) {
+        if (buf.remaining() < needed) {
+            buf.flip();
+            digest.update(buf);
+            buf.clear();
+        }
+        return buf;
+    }
+
+    /**
+     * Loads the cached analysis of the graph with the given key.
+     *
+     * @param key key returned by {@link #key(Graph)}
+     * @return cached entry, or {@code null} on a miss or a corrupted file
+     * @throws IOException if the file exists but cannot be read
+     */
+    public Entry load(String key) throws IOException {
+        Path file = fileFor(key);
+        Entry entry;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            entry = decode(buf, key);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (entry == null) {
+            Files.deleteIfExists(file);
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // evicted by another process after it was read; the entry is still valid
+        }
+        return entry;
+    }
+
+    /**
+     * Writes (or replaces) the cache file for the given key and evicts least
+     * recently used files if the cache grew beyond its size bound.
+     *
+     * @param key   key returned by {@link #key(Graph)}
+     * @param entry analysis to store
+     * @throws IOException if the file cannot be written
+     */
+    public void store(String key, Entry entry) throws IOException {
+        Path tmp = Files.createTempFile(dir, "tmp-", ".part");
+        try {
+            try (OutputStream raw = Files.newOutputStream(tmp)) {
+                DataOutputStream header = new DataOutputStream(raw);
+                header.writeInt(MAGIC);
+                header.writeInt(FORMAT_VERSION);
+                header.write(HexFormat.of().parseHex(key));
+                header.flush();
+
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(new CheckedOutputStream(raw, crc), 1 << 16));
+                encode(out, entry);
+                out.flush();
+                header.writeInt((int) crc.getValue());
+                header.flush();
+            }
+            try {
+                Files.move(tmp, fileFor(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, fileFor(key), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        evict();
+    }
+
+    private Path fileFor(String key) {
+        if (key.length() != 2 * HASH_BYTES) {
+            throw new IllegalArgumentException("Not a cache key: " + key);
+        }
+        return dir.resolve(key + SUFFIX);
+    }
+
+    private void evict() throws IOException {
+        long now = System.currentTimeMillis();
+        List<Path> files = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "{*" + SUFFIX + ",tmp-*.part}")) {
+            for (Path file : stream) {
+                long size;
+                long time;
+                try {
+                    size = Files.size(file);
+                    time = Files.getLastModifiedTime(file).toMillis();
+                } catch (NoSuchFileException e) {
+                    // removed by another process since the directory was listed
+                    continue;
+                }
+                if (file.getFileName().toString().endsWith(".part")) {
+                    if (now - time < STALE_PART_MILLIS) {
+                        // may still be written by another process
+                        continue;
+                    }
+                    // left behind by a crashed writer: evict before any result file
+                    time = Long.MIN_VALUE;
+                }
+                files.add(file);
+                sizes.add(size);
+                times.add(time);
+            }
+        }
+        long total = 0;
+        Integer[] order = new Integer[files.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            total += sizes.get(i);
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(times.get(a), times.get(b)));
+        for (int i = 0; i < order.length && total > maxBytes; i++) {
+            Files.deleteIfExists(files.get(order[i]));
+            total -= sizes.get(order[i]);
+        }
+    }
+
+    private static void encode(DataOutputStream out, Entry entry) throws IOException {
+        int[] compId = entry.scc.compId;
+        int compCount = entry.scc.components.size();
+        out.writeInt(compId.length);
+        out.writeInt(compCount);
+        for (int c : compId) {
+            out.writeInt(c);
+        }
+        for (List<Integer> comp : entry.scc.components) {
+            out.writeInt(comp.size());
+            for (int v : comp) {
+                out.writeInt(v);
+            }
+        }
+
+        int offset = 0;
+        out.writeInt(offset);
+        for (int u = 0; u < compCount; u++) {
+            offset += entry.dag.neighbors(u).size();
+            out.writeInt(offset);
+        }
+        for (int u = 0; u < compCount; u++) {
+            for (Graph.Edge e : entry.dag.neighbors(u)) {
+                out.writeInt(e.to);
+            }
+        }
+        for (int u = 0; u < compCount; u++) {
+            for (Graph.Edge e : entry.dag.neighbors(u)) {
+                out.writeInt(e.weight);
+            }
+        }
+
+        for (int c : entry.topo) {
+            out.writeInt(c);
+        }
+
+        out.writeInt(entry.shortest.size() + entry.longest.size());
+        writeResults(out, SHORTEST, entry.shortest);
+        writeResults(out, LONGEST, entry.longest);
+    }
+
+    private static void writeResults(DataOutputStream out, byte kind,
+                                     Map<Integer, DagShortestPaths.Result> results) throws IOException {
+        for (Map.Entry<Integer, DagShortestPaths.Result> r : results.entrySet()) {
+            out.writeByte(kind);
+            out.writeInt(r.getKey());
+            for (long d : r.getValue().dist) {
+                out.writeLong(d);
+            }
+            for (int p : r.getValue().parent) {
+                out.writeInt(p);
+            }
+        }
+    }
+
+    /**
+     * Decodes and validates a cache file; returns null if it is not a valid
+     * file for {@code key}.
+     */
+    private static Entry decode(ByteBuffer buf, String key) {
+        if (buf.limit() < HEADER_BYTES + 4 || buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT_VERSION) {
+            return null;
+        }
+        byte[] hash = new byte[HASH_BYTES];
+        buf.get(8, hash);
+        if (!Arrays.equals(hash, HexFormat.of().parseHex(key))) {
+            return null;
+        }
+        int payloadEnd = buf.limit() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(HEADER_BYTES, payloadEnd - HEADER_BYTES));
+        if ((int) crc.getValue() != buf.getInt(payloadEnd)) {
+            return null;
+        }
+
+        ByteBuffer in = buf.slice(HEADER_BYTES, payloadEnd - HEADER_BYTES);
+        try {
+            int n = in.getInt();
+            int compCount = in.getInt();
+            int[] compId = readInts(in, n);
+
+            List<List<Integer>> components = new ArrayList<>(compCount);
+            for (int c = 0; c < compCount; c++) {
+                int size = in.getInt();
+                List<Integer> comp = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    comp.add(in.getInt());
+                }
+                components.add(comp);
+            }
+
+            int[] offsets = readInts(in, compCount + 1);
+            int[] targets = readInts(in, offsets[compCount]);
+            int[] weights = readInts(in, offsets[compCount]);
+            Graph dag = new Graph(compCount, true);
+            for (int u = 0; u < compCount; u++) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    dag.addEdge(u, targets[i], weights[i]);
+                }
+            }
+
+            List<Integer> topo = new ArrayList<>(compCount);
+            for (int c : readInts(in, compCount)) {
+                topo.add(c);
+            }
+
+            Entry entry = new Entry(new TarjanSCC.Result(components, compId), dag, topo);
+            int resultCount = in.getInt();
+            for (int r = 0; r < resultCount; r++) {
+                byte kind = in.get();
+                int source = in.getInt();
+                long[] dist = new long[compCount];
+                in.asLongBuffer().get(dist);
+                in.position(in.position() + 8 * compCount);
+                int[] parent = readInts(in, compCount);
+                (kind == SHORTEST ? entry.shortest : entry.longest)
+                        .put(source, new DagShortestPaths.Result(dist, parent));
+            }
+            return in.hasRemaining() ? null : entry;
+        } catch (RuntimeException e) {
+            // a checksum collision on a malformed file; treat it as corrupted
+            return null;
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * count);
+        return values;
+    }
+}
@@ -0,0 +1,133 @@
+package graph.cc;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.scc.TarjanSCC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Connected components of an undirected graph with a concurrent union-find.
+ * <p>
+ * Vertices are processed in parallel chunks; every edge {u, v} (stored twice in
+ * an undirected {@link Graph}, handled once) unites the sets of u and v. Roots
+ * are linked with a compare-and-set that always hangs the larger root under the
+ * smaller one, so concurrent links can never form a cycle and the final root of
+ * every set is its smallest vertex. {@code find} uses path halving, also with
+ * compare-and-set, so readers may shorten paths while others link.
+ * <p>
+ * The result has the same shape as {@link TarjanSCC.Result}: components are
+ * numbered in order of their smallest vertex and list their vertices in
+ * ascending order.
+ */
+public class ParallelConnectedComponents {
+
+    /** Vertices handled by one parallel task. */
+    private static final int CHUNK = 4096;
+
+    private final Graph g;
+    private final Metrics metrics;
+
+    /**
+     * Creates a solver for the given undirected graph.
+     *
+     * @param g       undirected graph
+     * @param metrics metrics object used for time and edge counting
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public ParallelConnectedComponents(Graph g, Metrics metrics) {
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Connected components require an undirected graph");
+        }
+        this.g = g;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Computes the connected components.
+     *
+     * @return components and component id of every vertex
+     */
+    public TarjanSCC.Result run() {
+        int n = g.n();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+
+        metrics.startTimer();
+        for (int v = 0; v < n; v++) {
+            parent.set(v, v);
+        }
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        long edges = IntStream.range(0, chunks).parallel().mapToLong(c -> {
+            long processed = 0;
+            int to = Math.min(n, (c + 1) * CHUNK);
+            for (int u = c * CHUNK; u < to; u++) {
+                for (Graph.Edge e : g.neighbors(u)) {
+                    // each undirected edge is stored in both lists; unite it once
+                    if (u < e.to) {
+                        union(parent, u, e.to);
+                        processed++;
+                    }
+                }
+            }
+            return processed;
+        }).sum();
+        metrics.dfsEdges += edges;
+
+        // all links are done: roots are final, compress every vertex onto its root
+        IntStream.range(0, n).parallel().forEach(v -> parent.set(v, find(parent, v)));
+
+        int[] compId = new int[n];
+        List<List<Integer>> components = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            int root = parent.get(v);
+            if (root == v) {
+                compId[v] = components.size();
+                components.add(new ArrayList<>());
+            } else {
+                compId[v] = compId[root];
+            }
+            components.get(compId[v]).add(v);
+        }
+        metrics.dfsVisits += n;
+        metrics.stopTimer();
+
+        return new TarjanSCC.Result(components, compId);
+    }
+
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int gp = parent.get(p);
+            if (p != gp) {
+                // path halving; losing the race only means the path stays longer
+                parent.compareAndSet(x, p, gp);
+            }
+            x = gp;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            a = find(parent, a);
+            b = find(parent, b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            // a is the larger root; link it under b unless someone linked it first
+            if (parent.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package graph.common;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact read-only directed graph built from a {@link Graph}.
+ * <p>
+ * The neighbor list of every vertex is sorted by target and stored as varints
+ * in a single {@code byte[]}: the first target as the zigzag-coded signed gap
+ * from the vertex itself, every following one as the (non-negative) gap to its
+ * predecessor. For graphs whose edges connect numerically close vertices most
+ * targets take one byte instead of four.
+ * <p>
+ * Each target is followed by its weight. If the graph has at most 256 distinct
+ * weights they are dictionary-coded as one byte, otherwise they are written as
+ * zigzag varints.
+ * <p>
+ * The start of each list is found through a two-level index: one {@code int}
+ * per block of 64 vertices plus a {@code char} offset inside the block, about
+ * 2 bytes per vertex. If a block spans more than 64 KiB of encoded edges a
+ * plain {@code int} per vertex is used instead. A list ends where the next one
+ * starts, so no degree or edge offsets are stored.
+ * <p>
+ * Neighbors are decoded on the fly through a {@link Cursor}. Because lists are
+ * sorted by target, algorithms iterate neighbors in a different order than on the
+ * source {@code Graph}; distances and components are the same, but tie-breaking
+ * (component numbering, parents on equal-length paths) may differ.
+ */
+public final class CompressedGraph {
+
+    /** log2 of the number of vertices per index block. */
+    private static final int BLOCK_SHIFT = 6;
+
+    /**
+     * Forward-only iterator over the neighbors of one vertex.
+     * <pre>
+     * CompressedGraph.Cursor it = g.neighbors(v);
+     * while (it.next()) {
+     *     use(it.to(), it.weight());
+     * }
+     * </pre>
+     */
+    public final class Cursor {
+        private int pos;
+        private int end;
+        private int to;
+        private int weight;
+        private boolean first;
+
+        private Cursor() {
+        }
+
+        /**
+         * Repositions this cursor at the start of the neighbor list of {@code v}.
+         *
+         * @param v vertex whose neighbors should be iterated
+         * @return this cursor
+         */
+        public Cursor reset(int v) {
+            pos = start(v);
+            end = start(v + 1);
+            to = v;
+            first = true;
+            return this;
+        }
+
+        /**
+         * Advances to the next neighbor.
+         *
+         * @return false if the list is exhausted
+         */
+        public boolean next() {
+            if (pos == end) {
+                return false;
+            }
+            int gap = readVarint();
+            to += first ? unzigzag(gap) : gap;
+            first = false;
+            weight = dictionary != null ? dictionary[data[pos++] & 0xFF] : unzigzag(readVarint());
+            return true;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        /** Target of the current edge. */
+        public int to() {
+            return to;
+        }
+
+        /** Weight of the current edge. */
+        public int weight() {
+            return weight;
+        }
+    }
+
+    private final int n;
+    private final int edgeCount;
+    private final byte[] data;
+
+    /** Two-level index: list of v starts at blockStart[v >> BLOCK_SHIFT] + offset[v]. */
+    private final int[] blockStart;
+    private final char[] offset;
+
+    /** Flat index used when a block does not fit {@code char} offsets, otherwise {@code null}. */
+    private final int[] start;
+
+    /** Weight dictionary, or {@code null} if weights are stored as varints. */
+    private final int[] dictionary;
+
+    private CompressedGraph(int n, int edgeCount, byte[] data, int[] blockStart, char[] offset,
+                            int[] start, int[] dictionary) {
+        this.n = n;
+        this.edgeCount = edgeCount;
+        this.data = data;
+        this.blockStart = blockStart;
+        this.offset = offset;
+        this.start = start;
+        this.dictionary = dictionary;
+    }
+
+    private int start(int v) {
+        return start != null ? start[v] : blockStart[v >>> BLOCK_SHIFT] + offset[v];
+    }
+
+    /**
+     * Builds the compressed form of a graph. Undirected graphs are encoded with
+     * both directions of every edge, exactly as {@link Graph} stores them.
+     *
+     * @param g graph to compress
+     * @return read-only compressed copy of {@code g}
+     */
+    public static CompressedGraph from(Graph g) {
+        int n = g.n();
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            m += g.neighbors(v).size();
+        }
+        int[] dictionary = dictionary(g);
+
+        int[] start = new int[n + 1];
+        byte[] data = new byte[Math.max(16, 2 * m)];
+        int size = 0;
+        long[] sorted = new long[0];
+        for (int v = 0; v < n; v++) {
+            List<Graph.Edge> edges = g.neighbors(v);
+            int deg = edges.size();
+            if (sorted.length < deg) {
+                sorted = new long[deg];
+            }
+            // pack (target, original index) so the sort is stable for equal targets
+            for (int i = 0; i < deg; i++) {
+                sorted[i] = ((long) edges.get(i).to << 32) | i;
+            }
+            Arrays.sort(sorted, 0, deg);
+
+            start[v] = size;
+            int prev = v;
+            for (int i = 0; i < deg; i++) {
+                Graph.Edge e = edges.get((int) sorted[i]);
+                if (data.length - size < 10) {
+                    data = grow(data);
+                }
+                size = writeVarint(data, size, i == 0 ? zigzag(e.to - v) : e.to - prev);
+                prev = e.to;
+                if (dictionary != null) {
+                    data[size++] = (byte) Arrays.binarySearch(dictionary, e.weight);
+                } else {
+                    size = writeVarint(data, size, zigzag(e.weight));
+                }
+            }
+        }
+        start[n] = size;
+        data = Arrays.copyOf(data, size);
+
+        // two-level index if every offset fits in a char
+        int[] blockStart = new int[(n >>> BLOCK_SHIFT) + 1];
+        char[] offset = new char[n + 1];
+        for (int v = 0; v <= n; v++) {
+            int block = v >>> BLOCK_SHIFT;
+            if ((v & ((1 << BLOCK_SHIFT) - 1)) == 0) {
+                blockStart[block] = start[v];
+            }
+            int delta = start[v] - blockStart[block];
+            if (delta > Character.MAX_VALUE) {
+                return new CompressedGraph(n, m, data, null, null, start, dictionary);
+            }
+            offset[v] = (char) delta;
+        }
+        return new CompressedGraph(n, m, data, blockStart, offset, null, dictionary);
+    }
+
+    /**
+     * Collects the distinct weights in a sorted array of at most 256 entries,
+     * stopping as soon as a 257th value shows up.
+     *
+     * @return sorted distinct weights, or {@code null} if there are more than 256
+     */
+    private static int[] dictionary(Graph g) {
+        int[] values = new int[256];
+        int count = 0;
+        for (int v = 0; v < g.n(); v++) {
+            for (Graph.Edge e : g.neighbors(v)) {
+                int i = Arrays.binarySearch(values, 0, count, e.weight);
+                if (i >= 0) {
+                    continue;
+                }
+                if (count == values.length) {
+                    return null;
+                }
+                i = -i - 1;
+                System.arraycopy(values, i, values, i + 1, count - i);
+                values[i] = e.weight;
+                count++;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static byte[] grow(byte[] buf) {
+        long len = Math.min(2L * buf.length, Integer.MAX_VALUE - 8);
+        if (len - buf.length < 10) {
+            throw new IllegalArgumentException("Graph is too large to compress into a single array");
+        }
+        return Arrays.copyOf(buf, (int) len);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarint(byte[] buf, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns the total number of stored (directed) edges.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the out-degree of {@code v}; lists store no degree, so this decodes them.
+     */
+    public int degree(int v) {
+        Cursor it = neighbors(v);
+        int deg = 0;
+        while (it.next()) {
+            deg++;
+        }
+        return deg;
+    }
+
+    /**
+     * Returns a new cursor over the neighbors of {@code v}.
+     *
+     * @param v vertex
+     * @return cursor positioned before the first neighbor
+     */
+    public Cursor neighbors(int v) {
+        return new Cursor().reset(v);
+    }
+
+    /**
+     * Returns an empty cursor to be positioned later with {@link Cursor#reset(int)},
+     * so loops over many vertices can reuse one instance.
+     *
+     * @return cursor with no neighbors
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Approximate number of bytes held by the arrays of this graph.
+     */
+    public long memoryBytes() {
+        long bytes = data.length;
+        if (start != null) {
+            bytes += 4L * start.length;
+        } else {
+            bytes += 4L * blockStart.length + 2L * offset.length;
+        }
+        if (dictionary != null) {
+            bytes += 4L * dictionary.length;
+        }
+        return bytes;
+    }
+}
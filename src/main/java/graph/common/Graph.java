@@ -43,6 +43,20 @@ public class Graph {
         }
     }
 
+    /**
+     * Creates a graph over an existing adjacency structure. Used by subclasses
+     * that provide their own (for example immutable) storage.
+     *
+     * @param n        number of vertices (0..n-1)
+     * @param directed true if the graph is directed, false for undirected
+     * @param adj      adjacency lists, one per vertex
+     */
+    protected Graph(int n, boolean directed, List<List<Edge>> adj) {
+        this.n = n;
+        this.directed = directed;
+        this.adj = adj;
+    }
+
     public int n() {
         return n;
     }
@@ -0,0 +1,332 @@
+package graph.common;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable version of a {@link Graph}.
+ * <p>
+ * A snapshot never changes after construction, so any number of threads can run
+ * {@code TarjanSCC}, {@code TopologicalSort} or {@code DagShortestPaths} on it
+ * without locking. Updates are expressed as a {@link Delta} and applied with
+ * {@link #apply(Delta)}, which returns a new snapshot and leaves this one intact.
+ * <p>
+ * Vertices are grouped into blocks of {@value #BLOCK_SIZE}, and the blocks are the
+ * leaves of a radix tree with fan-out {@value #NODE_SIZE}. A new version copies
+ * only the blocks that contain touched vertices and the tree nodes on the path to
+ * them; all other nodes and blocks (and the unchanged edge lists inside copied
+ * blocks) are shared with its predecessor. Old
+ * versions are ordinary objects: once no reader references one, the garbage
+ * collector reclaims whatever is not shared with newer versions.
+ */
+public final class GraphSnapshot extends Graph {
+
+    static final int BLOCK_BITS = 6;
+    static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    static final int NODE_BITS = 6;
+    static final int NODE_SIZE = 1 << NODE_BITS;
+    private static final int NODE_MASK = NODE_SIZE - 1;
+
+    /**
+     * Batch of edge and vertex changes applied atomically by {@link #apply(Delta)}.
+     * For undirected snapshots every edge change is mirrored, as in {@link Graph#addEdge}.
+     */
+    public static class Delta {
+        private int addedVertices;
+        private final List<int[]> ops = new ArrayList<>();
+
+        /**
+         * Appends {@code count} new isolated vertices after the existing ones.
+         *
+         * @param count number of vertices to add
+         * @return this delta
+         */
+        public Delta addVertices(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + count);
+            }
+            addedVertices += count;
+            return this;
+        }
+
+        /**
+         * Adds an edge u -> v with weight w.
+         *
+         * @return this delta
+         */
+        public Delta addEdge(int u, int v, int w) {
+            ops.add(new int[]{u, v, w, 1});
+            return this;
+        }
+
+        /**
+         * Removes every edge u -> v.
+         *
+         * @return this delta
+         */
+        public Delta removeEdge(int u, int v) {
+            ops.add(new int[]{u, v, 0, 0});
+            return this;
+        }
+    }
+
+    /** An immutable group of BLOCK_SIZE (or fewer, for the last one) edge lists. */
+    private static final class Block {
+        final List<List<Edge>> lists;
+
+        Block(List<List<Edge>> lists) {
+            this.lists = lists;
+        }
+    }
+
+    private final long version;
+
+    /** Root of the block tree; interior nodes are {@code Object[NODE_SIZE]}, leaves are blocks. */
+    private final Object[] root;
+    private final int height;
+
+    private GraphSnapshot(int n, boolean directed, long version, Object[] root, int height) {
+        super(n, directed, adjacencyView(n, root, height));
+        this.version = version;
+        this.root = root;
+        this.height = height;
+    }
+
+    private static List<List<Edge>> adjacencyView(int n, Object[] root, int height) {
+        return new AbstractList<>() {
+            @Override
+            public List<Edge> get(int u) {
+                return block(root, height, u >>> BLOCK_BITS).lists.get(u & BLOCK_MASK);
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Creates the first version of a graph with {@code n} isolated vertices.
+     *
+     * @param n        number of vertices
+     * @param directed true if the graph is directed
+     * @return empty snapshot with version 0
+     */
+    public static GraphSnapshot empty(int n, boolean directed) {
+        int height = heightFor(blockCount(n));
+        Object[] root = new Object[NODE_SIZE];
+        Set<Object[]> fresh = freshNodes(root);
+        for (int b = 0; b < blockCount(n); b++) {
+            root = withBlock(root, height - 1, b, new Block(List.copyOf(emptyLists(blockLength(n, b)))), fresh);
+        }
+        return new GraphSnapshot(n, directed, 0, root, height);
+    }
+
+    /**
+     * Creates the first version of a graph as a copy of a mutable {@link Graph}.
+     *
+     * @param g graph to copy
+     * @return snapshot with version 0
+     */
+    public static GraphSnapshot of(Graph g) {
+        int n = g.n();
+        int height = heightFor(blockCount(n));
+        Object[] root = new Object[NODE_SIZE];
+        Set<Object[]> fresh = freshNodes(root);
+        for (int b = 0; b < blockCount(n); b++) {
+            List<List<Edge>> lists = new ArrayList<>(BLOCK_SIZE);
+            for (int i = 0; i < blockLength(n, b); i++) {
+                lists.add(List.copyOf(g.neighbors((b << BLOCK_BITS) + i)));
+            }
+            root = withBlock(root, height - 1, b, new Block(List.copyOf(lists)), fresh);
+        }
+        return new GraphSnapshot(n, g.isDirected(), 0, root, height);
+    }
+
+    /**
+     * Returns the version number; each {@link #apply(Delta)} increments it by one.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Snapshots are immutable; use {@link #apply(Delta)} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(int u, int v, int w) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable; apply a Delta instead");
+    }
+
+    /**
+     * Builds the next version of the graph. Blocks without touched vertices are
+     * shared with this snapshot.
+     *
+     * @param delta changes to apply
+     * @return new snapshot; this snapshot is unchanged
+     * @throws IllegalArgumentException if an edge refers to a non-existing vertex
+     */
+    public GraphSnapshot apply(Delta delta) {
+        int newN = n() + delta.addedVertices;
+
+        // changes grouped by the vertex whose list they modify, in delta order
+        Map<Integer, List<int[]>> byVertex = new LinkedHashMap<>();
+        for (int[] op : delta.ops) {
+            int u = op[0];
+            int v = op[1];
+            if (u < 0 || u >= newN || v < 0 || v >= newN) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " is out of range 0.." + (newN - 1));
+            }
+            byVertex.computeIfAbsent(u, k -> new ArrayList<>()).add(op);
+            if (!isDirected()) {
+                byVertex.computeIfAbsent(v, k -> new ArrayList<>()).add(new int[]{v, u, op[2], op[3]});
+            }
+        }
+
+        // blocks whose length changes (growth) or that contain touched vertices are copied
+        Map<Integer, List<List<Edge>>> copies = new TreeMap<>();
+        int oldBlocks = blockCount(n());
+        for (int b = Math.max(0, oldBlocks - 1); b < blockCount(newN); b++) {
+            int oldLength = blockLength(n(), b);
+            if (blockLength(newN, b) != oldLength) {
+                List<List<Edge>> lists = new ArrayList<>(BLOCK_SIZE);
+                if (b < oldBlocks) {
+                    lists.addAll(block(root, height, b).lists);
+                }
+                lists.addAll(emptyLists(blockLength(newN, b) - oldLength));
+                copies.put(b, lists);
+            }
+        }
+        for (Map.Entry<Integer, List<int[]>> entry : byVertex.entrySet()) {
+            int u = entry.getKey();
+            List<List<Edge>> lists = copies.computeIfAbsent(u >>> BLOCK_BITS,
+                    b -> new ArrayList<>(block(root, height, b).lists));
+            List<Edge> edges = new ArrayList<>(lists.get(u & BLOCK_MASK));
+            for (int[] op : entry.getValue()) {
+                int to = op[1];
+                if (op[3] == 1) {
+                    edges.add(new Edge(to, op[2]));
+                } else {
+                    edges.removeIf(e -> e.to == to);
+                }
+            }
+            lists.set(u & BLOCK_MASK, List.copyOf(edges));
+        }
+
+        // grow the tree upwards if needed, then copy the paths to the changed blocks
+        Object[] nextRoot = root;
+        int nextHeight = height;
+        Set<Object[]> fresh = freshNodes();
+        while (nextHeight < heightFor(blockCount(newN))) {
+            Object[] parent = new Object[NODE_SIZE];
+            parent[0] = nextRoot;
+            fresh.add(parent);
+            nextRoot = parent;
+            nextHeight++;
+        }
+        for (Map.Entry<Integer, List<List<Edge>>> entry : copies.entrySet()) {
+            Block block = new Block(List.copyOf(entry.getValue()));
+            nextRoot = withBlock(nextRoot, nextHeight - 1, entry.getKey(), block, fresh);
+        }
+        return new GraphSnapshot(newN, isDirected(), version + 1, nextRoot, nextHeight);
+    }
+
+    /**
+     * Returns true if vertex {@code v} lives in a block shared (not copied)
+     * between this snapshot and {@code other}.
+     */
+    boolean sharesBlockWith(GraphSnapshot other, int v) {
+        int b = v >>> BLOCK_BITS;
+        return b < blockCount(n()) && b < blockCount(other.n())
+                && block(root, height, b) == block(other.root, other.height, b);
+    }
+
+    /**
+     * Counts the tree nodes of this snapshot that are not shared with {@code older}.
+     */
+    int nodesNotSharedWith(GraphSnapshot older) {
+        Set<Object[]> shared = freshNodes();
+        collectNodes(older.root, older.height - 1, shared);
+        Set<Object[]> own = freshNodes();
+        collectNodes(root, height - 1, own);
+        own.removeAll(shared);
+        return own.size();
+    }
+
+    private static void collectNodes(Object[] node, int level, Set<Object[]> out) {
+        out.add(node);
+        if (level > 0) {
+            for (Object child : node) {
+                if (child != null) {
+                    collectNodes((Object[]) child, level - 1, out);
+                }
+            }
+        }
+    }
+
+    private static Block block(Object[] root, int height, int b) {
+        Object[] node = root;
+        for (int shift = (height - 1) * NODE_BITS; shift > 0; shift -= NODE_BITS) {
+            node = (Object[]) node[(b >>> shift) & NODE_MASK];
+        }
+        return (Block) node[b & NODE_MASK];
+    }
+
+    /**
+     * Returns {@code node} with block {@code b} replaced, copying every node on
+     * the path that was not already created by the current update.
+     *
+     * @param level height of {@code node} above the blocks, 0 for a node holding blocks
+     * @param fresh nodes created by the current update, which may be modified in place
+     */
+    private static Object[] withBlock(Object[] node, int level, int b, Block block, Set<Object[]> fresh) {
+        Object[] copy = node == null ? new Object[NODE_SIZE] : fresh.contains(node) ? node : node.clone();
+        fresh.add(copy);
+        int i = (b >>> (level * NODE_BITS)) & NODE_MASK;
+        copy[i] = level == 0 ? block : withBlock((Object[]) copy[i], level - 1, b, block, fresh);
+        return copy;
+    }
+
+    private static Set<Object[]> freshNodes(Object[]... nodes) {
+        Set<Object[]> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(set, nodes);
+        return set;
+    }
+
+    /** Number of tree levels needed to address {@code blocks} blocks, at least 1. */
+    private static int heightFor(int blocks) {
+        int height = 1;
+        while (blocks > 1L << (height * NODE_BITS)) {
+            height++;
+        }
+        return height;
+    }
+
+    private static int blockCount(int n) {
+        return (n + BLOCK_SIZE - 1) >>> BLOCK_BITS;
+    }
+
+    private static int blockLength(int n, int b) {
+        return Math.max(0, Math.min(BLOCK_SIZE, n - (b << BLOCK_BITS)));
+    }
+
+    private static List<List<Edge>> emptyLists(int count) {
+        List<List<Edge>> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lists.add(List.of());
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,45 @@
+package graph.common;
+
+/**
+ * Holder of the latest {@link GraphSnapshot} of a graph that is updated while
+ * being analysed.
+ * <p>
+ * Readers call {@link #current()} once and run their whole analysis on the
+ * returned snapshot; they never block and never observe a partially applied
+ * update. Writers publish new versions with {@link #commit(GraphSnapshot.Delta)};
+ * commits are serialized so no update is lost, but they do not wait for readers.
+ * A version is reclaimed by the garbage collector as soon as the last reader
+ * holding it drops its reference.
+ */
+public class VersionedGraph {
+
+    private volatile GraphSnapshot current;
+
+    /**
+     * Starts versioning from an initial snapshot.
+     *
+     * @param initial first version
+     */
+    public VersionedGraph(GraphSnapshot initial) {
+        this.current = initial;
+    }
+
+    /**
+     * Returns the latest published snapshot.
+     */
+    public GraphSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Applies a delta to the latest snapshot and publishes the result.
+     *
+     * @param delta changes to apply
+     * @return the newly published snapshot
+     */
+    public synchronized GraphSnapshot commit(GraphSnapshot.Delta delta) {
+        GraphSnapshot next = current.apply(delta);
+        current = next;
+        return next;
+    }
+}
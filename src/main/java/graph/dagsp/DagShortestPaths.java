@@ -1,7 +1,9 @@
 package graph.dagsp;
 
+import graph.common.CompressedGraph;
 import graph.common.Graph;
 import graph.common.Metrics;
+import graph.simd.ArrayKernels;
 import graph.topo.TopologicalSort;
 
 import java.util.ArrayList;
@@ -37,6 +39,21 @@ public class DagShortestPaths {
     }
 
     public static Result shortestPaths(Graph dag, int source, Metrics metrics) {
+        return shortestPaths(dag, source, TopologicalSort.kahn(dag, metrics), metrics);
+    }
+
+    /**
+     * Computes shortest paths from {@code source} over a precomputed topological
+     * order of {@code dag}, so callers that query several sources on the same DAG
+     * sort it only once.
+     *
+     * @param dag     directed acyclic graph
+     * @param source  source vertex
+     * @param topo    topological order of {@code dag}
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public static Result shortestPaths(Graph dag, int source, List<Integer> topo, Metrics metrics) {
         int n = dag.n();
         long INF = Long.MAX_VALUE / 4;
         long[] dist = new long[n];
@@ -45,8 +62,6 @@ public class DagShortestPaths {
         Arrays.fill(parent, -1);
         dist[source] = 0;
 
-        List<Integer> topo = TopologicalSort.kahn(dag, metrics);
-
         metrics.startTimer();
         for (int v : topo) {
             if (dist[v] == INF) continue;
@@ -65,6 +80,20 @@ public class DagShortestPaths {
     }
 
     public static Result longestPaths(Graph dag, int source, Metrics metrics) {
+        return longestPaths(dag, source, TopologicalSort.kahn(dag, metrics), metrics);
+    }
+
+    /**
+     * Computes longest (critical) paths from {@code source} over a precomputed
+     * topological order of {@code dag}.
+     *
+     * @param dag     directed acyclic graph
+     * @param source  source vertex
+     * @param topo    topological order of {@code dag}
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public static Result longestPaths(Graph dag, int source, List<Integer> topo, Metrics metrics) {
         int n = dag.n();
         long NEG_INF = Long.MIN_VALUE / 4;
         long[] dist = new long[n];
@@ -73,8 +102,6 @@ public class DagShortestPaths {
         Arrays.fill(parent, -1);
         dist[source] = 0;
 
-        List<Integer> topo = TopologicalSort.kahn(dag, metrics);
-
         metrics.startTimer();
         for (int v : topo) {
             if (dist[v] == NEG_INF) continue;
@@ -92,6 +119,82 @@ public class DagShortestPaths {
         return new Result(dist, parent);
     }
 
+    /**
+     * Shortest paths over a compressed DAG; neighbors are decoded on the fly.
+     *
+     * @param dag     compressed directed acyclic graph
+     * @param source  source vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public static Result shortestPaths(CompressedGraph dag, int source, Metrics metrics) {
+        int n = dag.n();
+        long INF = Long.MAX_VALUE / 4;
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, INF);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        List<Integer> topo = TopologicalSort.kahn(dag, metrics);
+
+        metrics.startTimer();
+        CompressedGraph.Cursor it = dag.cursor();
+        for (int v : topo) {
+            if (dist[v] == INF) continue;
+            it.reset(v);
+            while (it.next()) {
+                int to = it.to();
+                long nd = dist[v] + it.weight();
+                if (nd < dist[to]) {
+                    dist[to] = nd;
+                    parent[to] = v;
+                    metrics.relaxations++;
+                }
+            }
+        }
+        metrics.stopTimer();
+        return new Result(dist, parent);
+    }
+
+    /**
+     * Longest (critical) paths over a compressed DAG; neighbors are decoded on the fly.
+     *
+     * @param dag     compressed directed acyclic graph
+     * @param source  source vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public static Result longestPaths(CompressedGraph dag, int source, Metrics metrics) {
+        int n = dag.n();
+        long NEG_INF = Long.MIN_VALUE / 4;
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, NEG_INF);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        List<Integer> topo = TopologicalSort.kahn(dag, metrics);
+
+        metrics.startTimer();
+        CompressedGraph.Cursor it = dag.cursor();
+        for (int v : topo) {
+            if (dist[v] == NEG_INF) continue;
+            it.reset(v);
+            while (it.next()) {
+                int to = it.to();
+                long nd = dist[v] + it.weight();
+                if (nd > dist[to]) {
+                    dist[to] = nd;
+                    parent[to] = v;
+                    metrics.relaxations++;
+                }
+            }
+        }
+        metrics.stopTimer();
+        return new Result(dist, parent);
+    }
+
     public static List<Integer> reconstructPath(int target, Result res) {
         List<Integer> path = new ArrayList<>();
         int cur = target;
@@ -104,14 +207,7 @@ public class DagShortestPaths {
     }
 
     public static int findCriticalTarget(Result res) {
-        long best = Long.MIN_VALUE;
-        int bestNode = -1;
-        for (int i = 0; i < res.dist.length; i++) {
-            if (res.dist[i] > best) {
-                best = res.dist[i];
-                bestNode = i;
-            }
-        }
-        return bestNode;
+        int bestNode = ArrayKernels.argMax(res.dist);
+        return bestNode >= 0 && res.dist[bestNode] > Long.MIN_VALUE ? bestNode : -1;
     }
 }
@@ -0,0 +1,210 @@
+package graph.dagsp;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Level-parallel (wavefront) variant of {@link DagShortestPaths}.
+ * <p>
+ * The DAG is split into topological levels: level 0 holds the vertices without
+ * incoming edges and every other vertex sits one level after its deepest
+ * predecessor, so vertices of one level never depend on each other. Relaxation
+ * is pull-based: each vertex of a level reads its predecessors from a reverse
+ * CSR adjacency and computes its own distance and parent, so threads never
+ * write to the same slot and no atomics are needed. Levels are processed one
+ * after another, which acts as the barrier between them.
+ * <p>
+ * Levels are laid out in the same order as {@link graph.topo.TopologicalSort#kahn}
+ * produces, and predecessors are scanned in that order, so ties are broken
+ * exactly as in the sequential algorithm: {@code dist}, {@code parent} and the
+ * relaxation count are identical to {@link DagShortestPaths}.
+ * <p>
+ * The level structure is computed once in the constructor and reused by every
+ * query on the same DAG.
+ */
+public class ParallelDagShortestPaths {
+
+    /** Levels smaller than this are relaxed on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 2048;
+
+    private final int n;
+    private final int parallelThreshold;
+
+    /** Vertices in level order; level k is order[levelStart[k] .. levelStart[k+1]). */
+    private final int[] order;
+    private final int[] levelStart;
+    private final int[] levelOf;
+
+    /** Reverse CSR: predecessors of v with weights, sorted by topological position. */
+    private final int[] revStart;
+    private final int[] revFrom;
+    private final int[] revWeight;
+
+    /**
+     * Builds the level structure and reverse adjacency of the given DAG.
+     *
+     * @param dag directed acyclic graph
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public ParallelDagShortestPaths(Graph dag) {
+        this(dag, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Builds the level structure with a custom minimum size for parallel levels.
+     *
+     * @param dag               directed acyclic graph
+     * @param parallelThreshold levels with fewer vertices run on the calling thread
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    ParallelDagShortestPaths(Graph dag, int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        n = dag.n();
+        int[] indeg = new int[n];
+        int edgeCount = 0;
+        for (int v = 0; v < n; v++) {
+            for (Graph.Edge e : dag.neighbors(v)) {
+                indeg[e.to]++;
+                edgeCount++;
+            }
+        }
+
+        revStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            revStart[v + 1] = revStart[v] + indeg[v];
+        }
+
+        // level-synchronous Kahn: visits vertices in the same order as a FIFO queue
+        order = new int[n];
+        levelOf = new int[n];
+        int[] starts = new int[n + 1];
+        int levels = 0;
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (indeg[v] == 0) {
+                order[size++] = v;
+            }
+        }
+        int head = 0;
+        while (head < size) {
+            starts[levels] = head;
+            int end = size;
+            for (; head < end; head++) {
+                int v = order[head];
+                levelOf[v] = levels;
+                for (Graph.Edge e : dag.neighbors(v)) {
+                    if (--indeg[e.to] == 0) {
+                        order[size++] = e.to;
+                    }
+                }
+            }
+            levels++;
+        }
+        if (size != n) {
+            throw new IllegalArgumentException("Graph is not a DAG: cycle detected while building levels");
+        }
+        starts[levels] = n;
+        levelStart = Arrays.copyOf(starts, levels + 1);
+
+        // filling predecessors in topological order keeps each list sorted by position
+        revFrom = new int[edgeCount];
+        revWeight = new int[edgeCount];
+        int[] fill = Arrays.copyOf(revStart, n);
+        for (int u : order) {
+            for (Graph.Edge e : dag.neighbors(u)) {
+                int slot = fill[e.to]++;
+                revFrom[slot] = u;
+                revWeight[slot] = e.weight;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of topological levels of the DAG.
+     */
+    public int levelCount() {
+        return levelStart.length - 1;
+    }
+
+    /**
+     * Parallel single-source shortest paths; same result as
+     * {@link DagShortestPaths#shortestPaths(Graph, int, Metrics)}.
+     *
+     * @param source  source vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public DagShortestPaths.Result shortestPaths(int source, Metrics metrics) {
+        return run(source, false, metrics);
+    }
+
+    /**
+     * Parallel single-source longest paths; same result as
+     * {@link DagShortestPaths#longestPaths(Graph, int, Metrics)}.
+     *
+     * @param source  source vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distances and parent pointers from {@code source}
+     */
+    public DagShortestPaths.Result longestPaths(int source, Metrics metrics) {
+        return run(source, true, metrics);
+    }
+
+    private DagShortestPaths.Result run(int source, boolean longest, Metrics metrics) {
+        long unreached = longest ? Long.MIN_VALUE / 4 : Long.MAX_VALUE / 4;
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, unreached);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        metrics.startTimer();
+        long relaxations = 0;
+        // levels up to the source's own level contain nothing reachable from it
+        for (int level = levelOf[source] + 1; level < levelCount(); level++) {
+            int from = levelStart[level];
+            int to = levelStart[level + 1];
+            if (to - from < parallelThreshold) {
+                for (int i = from; i < to; i++) {
+                    relaxations += pull(order[i], dist, parent, unreached, longest);
+                }
+            } else {
+                relaxations += IntStream.range(from, to)
+                        .parallel()
+                        .mapToLong(i -> pull(order[i], dist, parent, unreached, longest))
+                        .sum();
+            }
+        }
+        metrics.relaxations += relaxations;
+        metrics.stopTimer();
+        return new DagShortestPaths.Result(dist, parent);
+    }
+
+    /**
+     * Computes dist[v] and parent[v] from the predecessors of v, which all lie
+     * in earlier levels. Returns the number of improvements, matching the number
+     * of relaxations the sequential push-based loop performs on v.
+     */
+    private int pull(int v, long[] dist, int[] parent, long unreached, boolean longest) {
+        long best = dist[v];
+        int bestParent = parent[v];
+        int improved = 0;
+        for (int i = revStart[v]; i < revStart[v + 1]; i++) {
+            int u = revFrom[i];
+            long du = dist[u];
+            if (du == unreached) continue;
+            long nd = du + revWeight[i];
+            if (longest ? nd > best : nd < best) {
+                best = nd;
+                bestParent = u;
+                improved++;
+            }
+        }
+        dist[v] = best;
+        parent[v] = bestParent;
+        return improved;
+    }
+}
@@ -0,0 +1,233 @@
+package graph.dagsp;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.topo.TopologicalSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point-to-point shortest and longest path queries on a DAG.
+ * <p>
+ * Unlike {@link DagShortestPaths}, which computes distances to every vertex,
+ * a query here only relaxes vertices that are both reachable from the source
+ * and able to reach the target. That set is found by a forward marking from the
+ * source and a backward marking from the target over a cached reverse adjacency.
+ * Relaxation then visits only the marked vertices, sorted by their position in
+ * the cached topological order.
+ * <p>
+ * The reverse adjacency, the topological positions and all scratch arrays are
+ * allocated once per DAG, so a query costs time proportional to the vertices and
+ * edges it touches (plus sorting the k marked vertices, O(k log k)), however far
+ * apart source and target are in the order. Instances are not thread-safe.
+ */
+public class PointToPointPaths {
+
+    /**
+     * Result of a point-to-point query: optimal distance and one optimal path.
+     */
+    public static class Result {
+        /** Distance from source to target; meaningless if the target is unreachable. */
+        public final long distance;
+
+        /** Vertices of one optimal path, empty if the target is unreachable. */
+        public final List<Integer> path;
+
+        public Result(long distance, List<Integer> path) {
+            this.distance = distance;
+            this.path = path;
+        }
+
+        public boolean isReachable() {
+            return !path.isEmpty();
+        }
+    }
+
+    private final Graph dag;
+
+    /** order[i] is the i-th vertex of the topological order, pos is its inverse. */
+    private final int[] order;
+    private final int[] pos;
+
+    /** Reverse adjacency in CSR form: predecessors of v are revFrom[revStart[v] .. revStart[v+1]). */
+    private final int[] revStart;
+    private final int[] revFrom;
+
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final long[] dist;
+    private final int[] parent;
+    private final int[] stack;
+    private final int[] marked;
+    private int epoch;
+
+    /**
+     * Prepares queries on the given DAG, computing its topological order.
+     *
+     * @param dag     directed acyclic graph
+     * @param metrics metrics used by the topological sort; may be {@code null}
+     * @return query object for {@code dag}
+     */
+    public static PointToPointPaths of(Graph dag, Metrics metrics) {
+        return new PointToPointPaths(dag, TopologicalSort.kahn(dag, metrics));
+    }
+
+    /**
+     * Prepares queries on the given DAG using a precomputed topological order.
+     *
+     * @param dag  directed acyclic graph
+     * @param topo topological order of {@code dag}
+     */
+    public PointToPointPaths(Graph dag, List<Integer> topo) {
+        this.dag = dag;
+        int n = dag.n();
+
+        order = new int[n];
+        pos = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topo.get(i);
+            pos[order[i]] = i;
+        }
+
+        revStart = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (Graph.Edge e : dag.neighbors(u)) {
+                revStart[e.to + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            revStart[v + 1] += revStart[v];
+        }
+        revFrom = new int[revStart[n]];
+        int[] fill = Arrays.copyOf(revStart, n);
+        for (int u = 0; u < n; u++) {
+            for (Graph.Edge e : dag.neighbors(u)) {
+                revFrom[fill[e.to]++] = u;
+            }
+        }
+
+        forwardMark = new int[n];
+        backwardMark = new int[n];
+        dist = new long[n];
+        parent = new int[n];
+        stack = new int[n];
+        marked = new int[n];
+    }
+
+    /**
+     * Computes a shortest path from {@code source} to {@code target}.
+     *
+     * @param source  source vertex
+     * @param target  target vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distance and path, or an unreachable result
+     */
+    public Result shortestPath(int source, int target, Metrics metrics) {
+        return query(source, target, false, metrics);
+    }
+
+    /**
+     * Computes a longest (critical) path from {@code source} to {@code target}.
+     *
+     * @param source  source vertex
+     * @param target  target vertex
+     * @param metrics metrics used to count relaxations and time
+     * @return distance and path, or an unreachable result
+     */
+    public Result longestPath(int source, int target, Metrics metrics) {
+        return query(source, target, true, metrics);
+    }
+
+    private Result query(int source, int target, boolean longest, Metrics metrics) {
+        metrics.startTimer();
+        Result result = relax(source, target, longest, metrics);
+        metrics.stopTimer();
+        return result;
+    }
+
+    private Result relax(int source, int target, boolean longest, Metrics metrics) {
+        int from = pos[source];
+        int to = pos[target];
+        if (from > to) {
+            return new Result(0, Collections.emptyList());
+        }
+        nextEpoch();
+
+        // forward marking: vertices reachable from source, not past the target
+        int top = 0;
+        stack[top++] = source;
+        forwardMark[source] = epoch;
+        while (top > 0) {
+            int v = stack[--top];
+            for (Graph.Edge e : dag.neighbors(v)) {
+                int w = e.to;
+                if (forwardMark[w] != epoch && pos[w] <= to) {
+                    forwardMark[w] = epoch;
+                    stack[top++] = w;
+                }
+            }
+        }
+        if (forwardMark[target] != epoch) {
+            return new Result(0, Collections.emptyList());
+        }
+
+        // backward marking: forward-marked vertices that can reach the target;
+        // their topological positions are collected in marked[0 .. count)
+        long init = longest ? Long.MIN_VALUE / 4 : Long.MAX_VALUE / 4;
+        int count = 0;
+        marked[count++] = to;
+        stack[top++] = target;
+        backwardMark[target] = epoch;
+        dist[target] = init;
+        parent[target] = -1;
+        while (top > 0) {
+            int v = stack[--top];
+            for (int i = revStart[v]; i < revStart[v + 1]; i++) {
+                int u = revFrom[i];
+                if (forwardMark[u] == epoch && backwardMark[u] != epoch) {
+                    backwardMark[u] = epoch;
+                    dist[u] = init;
+                    parent[u] = -1;
+                    stack[top++] = u;
+                    marked[count++] = pos[u];
+                }
+            }
+        }
+        dist[source] = 0;
+
+        Arrays.sort(marked, 0, count);
+        // the last marked position is the target itself, which has nothing left to relax
+        for (int i = 0; i < count - 1; i++) {
+            int v = order[marked[i]];
+            for (Graph.Edge e : dag.neighbors(v)) {
+                int w = e.to;
+                if (backwardMark[w] != epoch) continue;
+                long nd = dist[v] + e.weight;
+                if (longest ? nd > dist[w] : nd < dist[w]) {
+                    dist[w] = nd;
+                    parent[w] = v;
+                    metrics.relaxations++;
+                }
+            }
+        }
+
+        List<Integer> path = new ArrayList<>();
+        for (int cur = target; cur != -1; cur = parent[cur]) {
+            path.add(cur);
+        }
+        Collections.reverse(path);
+        return new Result(dist[target], path);
+    }
+
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            epoch = 1;
+        }
+    }
+}
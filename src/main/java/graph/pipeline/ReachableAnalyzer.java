@@ -0,0 +1,326 @@
+package graph.pipeline;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.dagsp.DagShortestPaths;
+import graph.scc.TarjanSCC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Demand-driven version of the SCC → condensation → topological order → DAG-SP
+ * pipeline.
+ * <p>
+ * Instead of analysing the whole graph, each query analyses only the vertices
+ * forward-reachable from its source that no earlier query has analysed. The
+ * analysed part of the graph is always closed under outgoing edges, so the
+ * search stops at analysed vertices: everything behind them is known already.
+ * For the same reason no SCC can contain both analysed and new vertices, so
+ * Tarjan's algorithm runs on the new vertices alone and their components are
+ * appended to one shared condensation, with edges into the older components.
+ * Every vertex is analysed at most once and the shared condensation is the
+ * condensation of the whole graph restricted to the analysed part.
+ * <p>
+ * Components are numbered in the order Tarjan's algorithm completes them, and
+ * later analyses only add edges into earlier components. An edge therefore
+ * always goes from a higher to a lower component id, and decreasing id is a
+ * topological order; no separate sort is needed.
+ * <p>
+ * A query works on a {@link Region}: the components reachable from the source
+ * component, extracted from the shared condensation. The most recently used
+ * regions are cached together with their path results.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class ReachableAnalyzer {
+
+    /** Number of regions (and their path results) kept in the cache. */
+    static final int MAX_CACHED_REGIONS = 64;
+
+    /**
+     * The components reachable from some source component, with their
+     * condensation DAG and topological order.
+     * <p>
+     * Local component {@code c} of the region is the shared component
+     * {@code components[c]}; components are stored in ascending order.
+     */
+    public static class Region {
+
+        /** components[c] is the shared id of local component c (sorted ascending). */
+        public final int[] components;
+
+        /** Condensation DAG restricted to this region, in local component ids. */
+        public final Graph dag;
+
+        /** Topological order of {@link #dag}. */
+        public final List<Integer> topo;
+
+        private final int size;
+        private final int sourceComp;
+        private final int[] compOf;
+        private final List<List<Integer>> members;
+        private DagShortestPaths.Result shortest;
+        private DagShortestPaths.Result longest;
+
+        Region(int[] components, Graph dag, List<Integer> topo, int size, int sourceComp,
+               int[] compOf, List<List<Integer>> members) {
+            this.components = components;
+            this.dag = dag;
+            this.topo = topo;
+            this.size = size;
+            this.sourceComp = sourceComp;
+            this.compOf = compOf;
+            this.members = members;
+        }
+
+        /**
+         * Returns the number of original vertices in this region.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns whether a global vertex belongs to this region.
+         *
+         * @param v global vertex id
+         * @return {@code true} if {@code v} is reachable from the region's source
+         */
+        public boolean contains(int v) {
+            return compOf[v] >= 0 && Arrays.binarySearch(components, compOf[v]) >= 0;
+        }
+
+        /**
+         * Returns the component (condensation vertex) containing a global vertex.
+         *
+         * @param v global vertex id, must belong to this region
+         * @return component id in {@link #dag}
+         */
+        public int componentOf(int v) {
+            int c = compOf[v] >= 0 ? Arrays.binarySearch(components, compOf[v]) : -1;
+            if (c < 0) {
+                throw new IllegalArgumentException("Vertex " + v + " is not in this region");
+            }
+            return c;
+        }
+
+        /**
+         * Returns the vertices of component {@code c} as global vertex ids.
+         *
+         * @param c component id in {@link #dag}
+         * @return global vertex ids of the component
+         */
+        public List<Integer> globalComponent(int c) {
+            return members.get(components[c]);
+        }
+    }
+
+    private final Graph g;
+    private final Metrics metrics;
+
+    /** compOf[v] is the shared component of v, or -1 if v has not been analysed. */
+    private final int[] compOf;
+
+    /** Vertices of every shared component. */
+    private final List<List<Integer>> members = new ArrayList<>();
+
+    /** Outgoing condensation edges of every shared component. */
+    private final List<List<Graph.Edge>> compEdges = new ArrayList<>();
+
+    private final Map<Integer, Region> regions =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Region> eldest) {
+                    return size() > MAX_CACHED_REGIONS;
+                }
+            };
+
+    private int analysedVertices;
+    private int analyses;
+
+    /**
+     * Creates an analyzer over the given graph.
+     *
+     * @param g       directed graph
+     * @param metrics metrics accumulated over all analyses and queries
+     */
+    public ReachableAnalyzer(Graph g, Metrics metrics) {
+        this.g = g;
+        this.metrics = metrics;
+        this.compOf = new int[g.n()];
+        Arrays.fill(compOf, -1);
+    }
+
+    /**
+     * Returns how many times new vertices had to be analysed.
+     */
+    public int analysisCount() {
+        return analyses;
+    }
+
+    /**
+     * Returns the number of vertices analysed so far.
+     */
+    public int analysedVertexCount() {
+        return analysedVertices;
+    }
+
+    /**
+     * Returns the region reachable from {@code source}, analysing only the
+     * reachable vertices that have not been analysed before.
+     *
+     * @param source source vertex
+     * @return region that contains all vertices reachable from {@code source}
+     */
+    public Region regionFor(int source) {
+        if (compOf[source] == -1) {
+            analyze(source);
+        }
+        int sourceComp = compOf[source];
+        Region region = regions.get(sourceComp);
+        if (region == null) {
+            region = extract(sourceComp);
+            regions.put(sourceComp, region);
+        }
+        return region;
+    }
+
+    /**
+     * Shortest paths on the condensation DAG of the region reachable from
+     * {@code source}. Vertices of the result are component ids of that region.
+     *
+     * @param source source vertex of the original graph
+     * @return cached or newly computed shortest path result
+     */
+    public DagShortestPaths.Result shortestPaths(int source) {
+        Region region = regionFor(source);
+        if (region.shortest == null) {
+            region.shortest = DagShortestPaths.shortestPaths(region.dag, region.sourceComp, region.topo, metrics);
+        }
+        return region.shortest;
+    }
+
+    /**
+     * Longest (critical) paths on the condensation DAG of the region reachable
+     * from {@code source}. Vertices of the result are component ids of that region.
+     *
+     * @param source source vertex of the original graph
+     * @return cached or newly computed longest path result
+     */
+    public DagShortestPaths.Result longestPaths(int source) {
+        Region region = regionFor(source);
+        if (region.longest == null) {
+            region.longest = DagShortestPaths.longestPaths(region.dag, region.sourceComp, region.topo, metrics);
+        }
+        return region.longest;
+    }
+
+    /**
+     * Analyses the vertices reachable from {@code source} that are not analysed yet
+     * and appends their components to the shared condensation.
+     */
+    private void analyze(int source) {
+        analyses++;
+
+        // forward BFS from source that stops at analysed vertices; -2 marks "queued"
+        int[] queue = new int[16];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        compOf[source] = -2;
+        while (head < tail) {
+            int v = queue[head++];
+            for (Graph.Edge e : g.neighbors(v)) {
+                int to = e.to;
+                if (compOf[to] == -1) {
+                    compOf[to] = -2;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = to;
+                }
+            }
+        }
+
+        int[] vertices = Arrays.copyOf(queue, tail);
+        Arrays.sort(vertices);
+        Graph sub = new Graph(vertices.length, true);
+        for (int i = 0; i < vertices.length; i++) {
+            for (Graph.Edge e : g.neighbors(vertices[i])) {
+                if (compOf[e.to] == -2) {
+                    sub.addEdge(i, Arrays.binarySearch(vertices, e.to), e.weight);
+                }
+            }
+        }
+
+        TarjanSCC.Result scc = new TarjanSCC(sub, metrics).run();
+        int base = members.size();
+        for (List<Integer> comp : scc.components) {
+            List<Integer> global = new ArrayList<>(comp.size());
+            for (int v : comp) {
+                global.add(vertices[v]);
+            }
+            members.add(global);
+            compEdges.add(new ArrayList<>());
+        }
+        for (int i = 0; i < vertices.length; i++) {
+            compOf[vertices[i]] = base + scc.compId[i];
+        }
+        analysedVertices += vertices.length;
+
+        // condensation edges of the new components, first edge per pair in vertex order
+        // as in CondensationGraphBuilder
+        Set<Long> seen = new HashSet<>();
+        for (int v : vertices) {
+            int cu = compOf[v];
+            for (Graph.Edge e : g.neighbors(v)) {
+                int cv = compOf[e.to];
+                if (cu != cv && seen.add(((long) cu << 32) | cv)) {
+                    compEdges.get(cu).add(new Graph.Edge(cv, e.weight));
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the components reachable from {@code sourceComp} and builds
+     * their condensation DAG in local ids.
+     */
+    private Region extract(int sourceComp) {
+        // a set rather than a mark array keeps the cost proportional to the region
+        List<Integer> reached = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        seen.add(sourceComp);
+        reached.add(sourceComp);
+        for (int i = 0; i < reached.size(); i++) {
+            for (Graph.Edge e : compEdges.get(reached.get(i))) {
+                if (seen.add(e.to)) {
+                    reached.add(e.to);
+                }
+            }
+        }
+
+        int[] components = reached.stream().mapToInt(Integer::intValue).sorted().toArray();
+        Graph dag = new Graph(components.length, true);
+        int size = 0;
+        for (int c = 0; c < components.length; c++) {
+            size += members.get(components[c]).size();
+            for (Graph.Edge e : compEdges.get(components[c])) {
+                dag.addEdge(c, Arrays.binarySearch(components, e.to), e.weight);
+            }
+        }
+        // edges only go to lower shared ids, so decreasing id is a topological order
+        List<Integer> topo = new ArrayList<>(components.length);
+        for (int c = components.length - 1; c >= 0; c--) {
+            topo.add(c);
+        }
+        return new Region(components, dag, topo, size, Arrays.binarySearch(components, sourceComp),
+                compOf, members);
+    }
+}
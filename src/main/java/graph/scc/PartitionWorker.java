@@ -0,0 +1,234 @@
+package graph.scc;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Worker side of {@link PartitionedSCC}.
+ * <p>
+ * A worker connects to the coordinator, receives one vertex range with its
+ * outgoing edges and the set of "entry" vertices (targets of edges coming from
+ * other partitions), and answers in two rounds:
+ * <ol>
+ *   <li>SUMMARY: the partition-local SCCs, plus a reachability summary made of
+ *       the local components that are reachable from an entry and can reach an
+ *       outgoing cross edge, the local condensation edges between them and their
+ *       cross edges. Only these components can lie on a cycle through other
+ *       partitions.</li>
+ *   <li>CONDENSATION: after receiving the global component id of each local
+ *       component, the condensation edges leaving this partition, in vertex order.</li>
+ * </ol>
+ * Run as {@code java graph.scc.PartitionWorker <host> <port>}; the same
+ * protocol works for workers on other machines.
+ */
+public final class PartitionWorker {
+
+    static final int MAGIC = 0x50534343; // "PSCC"
+    static final int PROTOCOL_VERSION = 1;
+
+    private PartitionWorker() {
+        // entry point only
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java graph.scc.PartitionWorker <host> <port>");
+            System.exit(2);
+        }
+        serve(args[0], Integer.parseInt(args[1]));
+    }
+
+    /**
+     * Connects to a coordinator and processes one partition.
+     *
+     * @param host coordinator host
+     * @param port coordinator port
+     * @throws IOException if the connection fails or the protocol is violated
+     */
+    public static void serve(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(PROTOCOL_VERSION);
+            out.flush();
+
+            // PARTITION: lo, hi, then per vertex its out edges, then entry vertices
+            int lo = in.readInt();
+            int hi = in.readInt();
+            int size = hi - lo;
+            Graph local = new Graph(size, true);
+            int[][] targets = new int[size][];
+            int[][] weights = new int[size][];
+            for (int i = 0; i < size; i++) {
+                int deg = in.readInt();
+                targets[i] = new int[deg];
+                weights[i] = new int[deg];
+                for (int j = 0; j < deg; j++) {
+                    int to = in.readInt();
+                    int w = in.readInt();
+                    targets[i][j] = to;
+                    weights[i][j] = w;
+                    if (to >= lo && to < hi) {
+                        local.addEdge(i, to - lo, w);
+                    }
+                }
+            }
+            int entryCount = in.readInt();
+            int[] entries = new int[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                entries[i] = in.readInt() - lo;
+            }
+
+            TarjanSCC.Result scc = new TarjanSCC(local, new Metrics()).run();
+            int[] comp = scc.compId;
+            int compCount = scc.components.size();
+
+            // local condensation (deduplicated) and the components with cross edges
+            List<List<Integer>> succ = new ArrayList<>(compCount);
+            List<List<Integer>> pred = new ArrayList<>(compCount);
+            for (int c = 0; c < compCount; c++) {
+                succ.add(new ArrayList<>());
+                pred.add(new ArrayList<>());
+            }
+            Set<Long> seen = new HashSet<>();
+            boolean[] exit = new boolean[compCount];
+            for (int i = 0; i < size; i++) {
+                for (int to : targets[i]) {
+                    if (to < lo || to >= hi) {
+                        exit[comp[i]] = true;
+                    } else if (comp[i] != comp[to - lo] && seen.add(pair(comp[i], comp[to - lo]))) {
+                        succ.get(comp[i]).add(comp[to - lo]);
+                        pred.get(comp[to - lo]).add(comp[i]);
+                    }
+                }
+            }
+
+            boolean[] fromEntry = new boolean[compCount];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int v : entries) {
+                if (!fromEntry[comp[v]]) {
+                    fromEntry[comp[v]] = true;
+                    queue.add(comp[v]);
+                }
+            }
+            mark(queue, succ, fromEntry);
+            boolean[] toExit = new boolean[compCount];
+            for (int c = 0; c < compCount; c++) {
+                if (exit[c]) {
+                    toExit[c] = true;
+                    queue.add(c);
+                }
+            }
+            mark(queue, pred, toExit);
+
+            // SUMMARY
+            out.writeInt(compCount);
+            for (int c : comp) {
+                out.writeInt(c);
+            }
+            List<Integer> relevant = new ArrayList<>();
+            for (int c = 0; c < compCount; c++) {
+                if (fromEntry[c] && toExit[c]) {
+                    relevant.add(c);
+                }
+            }
+            out.writeInt(relevant.size());
+            for (int c : relevant) {
+                out.writeInt(c);
+            }
+            List<int[]> dagEdges = new ArrayList<>();
+            for (int c : relevant) {
+                for (int d : succ.get(c)) {
+                    if (fromEntry[d] && toExit[d]) {
+                        dagEdges.add(new int[]{c, d});
+                    }
+                }
+            }
+            out.writeInt(dagEdges.size());
+            for (int[] e : dagEdges) {
+                out.writeInt(e[0]);
+                out.writeInt(e[1]);
+            }
+            List<int[]> crossEdges = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int c = comp[i];
+                if (fromEntry[c] && toExit[c]) {
+                    for (int to : targets[i]) {
+                        if (to < lo || to >= hi) {
+                            crossEdges.add(new int[]{c, to});
+                        }
+                    }
+                }
+            }
+            out.writeInt(crossEdges.size());
+            for (int[] e : crossEdges) {
+                out.writeInt(e[0]);
+                out.writeInt(e[1]);
+            }
+            out.flush();
+
+            // COMP_MAP: global id of every local component
+            int[] global = new int[compCount];
+            for (int c = 0; c < compCount; c++) {
+                global[c] = in.readInt();
+            }
+
+            // CONDENSATION: (from component, target, weight) in vertex/adjacency order;
+            // a target >= 0 is a global component, a target < 0 is -1 - foreign vertex
+            List<int[]> records = new ArrayList<>();
+            seen.clear();
+            for (int i = 0; i < size; i++) {
+                int cu = global[comp[i]];
+                for (int j = 0; j < targets[i].length; j++) {
+                    int to = targets[i][j];
+                    if (to < lo || to >= hi) {
+                        records.add(new int[]{cu, -1 - to, weights[i][j]});
+                    } else {
+                        int cv = global[comp[to - lo]];
+                        if (cu != cv && seen.add(pair(cu, cv))) {
+                            records.add(new int[]{cu, cv, weights[i][j]});
+                        }
+                    }
+                }
+            }
+            out.writeInt(records.size());
+            for (int[] r : records) {
+                out.writeInt(r[0]);
+                out.writeInt(r[1]);
+                out.writeInt(r[2]);
+            }
+            out.flush();
+        }
+    }
+
+    static long pair(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private static void mark(Deque<Integer> queue, List<List<Integer>> adj, boolean[] marked) {
+        while (!queue.isEmpty()) {
+            int c = queue.remove();
+            for (int d : adj.get(c)) {
+                if (!marked[d]) {
+                    marked[d] = true;
+                    queue.add(d);
+                }
+            }
+        }
+    }
+}
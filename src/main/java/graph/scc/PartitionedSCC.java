@@ -0,0 +1,423 @@
+package graph.scc;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitioned SCC computation across worker processes.
+ * <p>
+ * The coordinator splits the vertex set into contiguous ranges and hands each
+ * range, with its outgoing edges, to a {@link PartitionWorker} over a socket.
+ * Workers compute partition-local SCCs (each is a subset of a global SCC) and a
+ * reachability summary of the local components that can lie on a cycle through
+ * other partitions. The coordinator contracts those components into a quotient
+ * graph, joined by the cross-partition edges, and runs {@link TarjanSCC} on it;
+ * every quotient SCC merges its local components into one global SCC. Workers
+ * then report the condensation edges of their partition under the global ids.
+ * <p>
+ * The vertex partition into SCCs is exactly the one {@link TarjanSCC} computes,
+ * and the condensation DAG has the same edges (first edge per component pair,
+ * in vertex order) as {@link CondensationGraphBuilder}. Component ids differ:
+ * components are numbered in order of their smallest vertex and list their
+ * vertices in ascending order, not in Tarjan's completion order.
+ * <p>
+ * This spreads the SCC work over several JVMs; it does not reduce the
+ * coordinator's memory. The coordinator still holds the whole {@link Graph}
+ * and the per-vertex component ids, and streams the partitions to the workers.
+ * <p>
+ * By default workers are started as local JVMs on the classpath this class was
+ * loaded from; if that location is unknown they run as threads of this JVM,
+ * which is also useful for testing.
+ */
+public class PartitionedSCC {
+
+    /** How worker endpoints are started. */
+    public enum Mode {
+        /**
+         * One child JVM per partition, started with the current java binary on the
+         * location of this module's classes; falls back to {@link #THREADS} if that
+         * location is unknown.
+         */
+        PROCESSES,
+        /** One thread per partition inside this JVM; same socket protocol. */
+        THREADS
+    }
+
+    /**
+     * Result of a partitioned run: SCCs and the condensation DAG.
+     */
+    public static class Result {
+        public final TarjanSCC.Result scc;
+        public final Graph condensation;
+
+        public Result(TarjanSCC.Result scc, Graph condensation) {
+            this.scc = scc;
+            this.condensation = condensation;
+        }
+    }
+
+    private static final int ACCEPT_TIMEOUT_MS = 60_000;
+
+    /** How often a pending accept checks whether a worker has already died. */
+    private static final int ACCEPT_POLL_MS = 200;
+
+    private final Graph g;
+    private final int partitions;
+    private final Mode mode;
+    private final Metrics metrics;
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param g          directed graph
+     * @param partitions number of partitions (and workers)
+     * @param mode       how workers are started
+     * @param metrics    metrics; time covers the whole distributed run and
+     *                   {@code dfsVisits}/{@code dfsEdges} count the quotient graph
+     */
+    public PartitionedSCC(Graph g, int partitions, Mode mode, Metrics metrics) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("At least one partition is required: " + partitions);
+        }
+        this.g = g;
+        this.partitions = partitions;
+        this.mode = mode;
+        this.metrics = metrics;
+    }
+
+    /** Per-worker connection and the summary it reported. */
+    private static final class Part {
+        int lo;
+        int hi;
+        Socket socket;
+        DataInputStream in;
+        DataOutputStream out;
+
+        int[] localComp;
+        int compCount;
+        int[] relevant;
+        int[] quotientIndex;
+        int[] dagEdges;
+        int[] crossEdges;
+    }
+
+    /**
+     * Runs the partitioned computation.
+     *
+     * @return global SCCs and condensation DAG
+     * @throws IOException if a worker cannot be started or fails
+     */
+    public Result run() throws IOException {
+        int n = g.n();
+        int k = Math.max(1, Math.min(partitions, n));
+        int rangeSize = Math.max(1, (n + k - 1) / k);
+
+        metrics.startTimer();
+        List<Process> processes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        List<IOException> workerErrors = new ArrayList<>();
+        Part[] parts = new Part[k];
+        Result result;
+
+        try (ServerSocket server = new ServerSocket(0, k, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_POLL_MS);
+            startWorkers(k, server.getLocalPort(), processes, threads, workerErrors);
+
+            for (int i = 0; i < k; i++) {
+                Part p = new Part();
+                p.lo = Math.min(n, i * rangeSize);
+                p.hi = Math.min(n, p.lo + rangeSize);
+                p.socket = accept(server, i, processes, workerErrors);
+                parts[i] = p;
+                p.socket.setTcpNoDelay(true);
+                p.in = new DataInputStream(new BufferedInputStream(p.socket.getInputStream(), 1 << 16));
+                p.out = new DataOutputStream(new BufferedOutputStream(p.socket.getOutputStream(), 1 << 16));
+                if (p.in.readInt() != PartitionWorker.MAGIC || p.in.readInt() != PartitionWorker.PROTOCOL_VERSION) {
+                    throw new IOException("Worker " + i + " speaks an unknown protocol");
+                }
+            }
+
+            sendPartitions(parts, rangeSize);
+            for (Part p : parts) {
+                readSummary(p);
+            }
+
+            int[] compId = new int[n];
+            List<List<Integer>> components = merge(parts, rangeSize, compId);
+
+            for (Part p : parts) {
+                sendMapping(p, compId);
+            }
+            Graph condensation = new Graph(components.size(), true);
+            Set<Long> seen = new HashSet<>();
+            for (Part p : parts) {
+                readCondensation(p, compId, condensation, seen);
+            }
+            result = new Result(new TarjanSCC.Result(components, compId), condensation);
+        } finally {
+            for (Part p : parts) {
+                if (p != null) {
+                    p.socket.close();
+                }
+            }
+            awaitWorkers(processes, threads);
+            metrics.stopTimer();
+        }
+        if (!workerErrors.isEmpty()) {
+            throw workerErrors.get(0);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the next worker connection. A worker blocks on its partition
+     * once connected, so any worker that exits before all have connected
+     * has failed; that is reported at once instead of after the full timeout.
+     */
+    private static Socket accept(ServerSocket server, int index, List<Process> processes,
+                                 List<IOException> workerErrors) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_TIMEOUT_MS);
+        while (true) {
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException e) {
+                for (Process process : processes) {
+                    if (!process.isAlive()) {
+                        throw new IOException("Worker process exited with code " + process.exitValue()
+                                + " before connecting");
+                    }
+                }
+                synchronized (workerErrors) {
+                    if (!workerErrors.isEmpty()) {
+                        throw new IOException("Worker failed before connecting", workerErrors.get(0));
+                    }
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("Worker " + index + " did not connect within "
+                            + ACCEPT_TIMEOUT_MS + " ms", e);
+                }
+            }
+        }
+    }
+
+    private void sendPartitions(Part[] parts, int rangeSize) throws IOException {
+        boolean[] entry = new boolean[g.n()];
+        for (int u = 0; u < g.n(); u++) {
+            for (Graph.Edge e : g.neighbors(u)) {
+                if (u / rangeSize != e.to / rangeSize) {
+                    entry[e.to] = true;
+                }
+            }
+        }
+        for (Part p : parts) {
+            DataOutputStream out = p.out;
+            out.writeInt(p.lo);
+            out.writeInt(p.hi);
+            int entries = 0;
+            for (int v = p.lo; v < p.hi; v++) {
+                List<Graph.Edge> edges = g.neighbors(v);
+                out.writeInt(edges.size());
+                for (Graph.Edge e : edges) {
+                    out.writeInt(e.to);
+                    out.writeInt(e.weight);
+                }
+                if (entry[v]) {
+                    entries++;
+                }
+            }
+            out.writeInt(entries);
+            for (int v = p.lo; v < p.hi; v++) {
+                if (entry[v]) {
+                    out.writeInt(v);
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private static void readSummary(Part p) throws IOException {
+        DataInputStream in = p.in;
+        p.compCount = in.readInt();
+        p.localComp = readInts(in, p.hi - p.lo);
+        p.relevant = readInts(in, in.readInt());
+        p.dagEdges = readInts(in, 2 * in.readInt());
+        p.crossEdges = readInts(in, 2 * in.readInt());
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Merges local components that share a cycle through other partitions and
+     * numbers the resulting global components by their smallest vertex.
+     */
+    private List<List<Integer>> merge(Part[] parts, int rangeSize, int[] compId) {
+        int quotientSize = 0;
+        for (Part p : parts) {
+            p.quotientIndex = new int[p.compCount];
+            Arrays.fill(p.quotientIndex, -1);
+            for (int c : p.relevant) {
+                p.quotientIndex[c] = quotientSize++;
+            }
+        }
+        Graph quotient = new Graph(quotientSize, true);
+        for (Part p : parts) {
+            for (int i = 0; i < p.dagEdges.length; i += 2) {
+                quotient.addEdge(p.quotientIndex[p.dagEdges[i]], p.quotientIndex[p.dagEdges[i + 1]], 0);
+            }
+            for (int i = 0; i < p.crossEdges.length; i += 2) {
+                int target = p.crossEdges[i + 1];
+                Part q = parts[target / rangeSize];
+                int to = q.quotientIndex[q.localComp[target - q.lo]];
+                // a target component that cannot reach any exit is on no cross-partition cycle
+                if (to >= 0) {
+                    quotient.addEdge(p.quotientIndex[p.crossEdges[i]], to, 0);
+                }
+            }
+        }
+        Metrics quotientMetrics = new Metrics();
+        TarjanSCC.Result merged = new TarjanSCC(quotient, quotientMetrics).run();
+        metrics.dfsVisits += quotientMetrics.dfsVisits;
+        metrics.dfsEdges += quotientMetrics.dfsEdges;
+
+        int[] mergedGlobal = new int[merged.components.size()];
+        Arrays.fill(mergedGlobal, -1);
+        List<List<Integer>> components = new ArrayList<>();
+        for (Part p : parts) {
+            int[] localGlobal = new int[p.compCount];
+            Arrays.fill(localGlobal, -1);
+            for (int v = p.lo; v < p.hi; v++) {
+                int c = p.localComp[v - p.lo];
+                int qi = p.quotientIndex[c];
+                int[] ids = qi >= 0 ? mergedGlobal : localGlobal;
+                int slot = qi >= 0 ? merged.compId[qi] : c;
+                if (ids[slot] == -1) {
+                    ids[slot] = components.size();
+                    components.add(new ArrayList<>());
+                }
+                compId[v] = ids[slot];
+                components.get(ids[slot]).add(v);
+            }
+        }
+        return components;
+    }
+
+    private static void sendMapping(Part p, int[] compId) throws IOException {
+        int[] global = new int[p.compCount];
+        for (int v = p.lo; v < p.hi; v++) {
+            global[p.localComp[v - p.lo]] = compId[v];
+        }
+        for (int id : global) {
+            p.out.writeInt(id);
+        }
+        p.out.flush();
+    }
+
+    private static void readCondensation(Part p, int[] compId, Graph condensation, Set<Long> seen)
+            throws IOException {
+        int count = p.in.readInt();
+        for (int i = 0; i < count; i++) {
+            int cu = p.in.readInt();
+            int target = p.in.readInt();
+            int w = p.in.readInt();
+            int cv = target >= 0 ? target : compId[-1 - target];
+            if (cu != cv && seen.add(PartitionWorker.pair(cu, cv))) {
+                condensation.addEdge(cu, cv, w);
+            }
+        }
+    }
+
+    private static void awaitWorkers(List<Process> processes, List<Thread> threads) {
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Thread t : threads) {
+            try {
+                t.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void startWorkers(int k, int port, List<Process> processes, List<Thread> threads,
+                              List<IOException> workerErrors) throws IOException {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        String classPath = mode == Mode.PROCESSES ? workerClassPath() : null;
+        for (int i = 0; i < k; i++) {
+            if (classPath != null) {
+                String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+                ProcessBuilder pb = new ProcessBuilder(java, "-cp", classPath,
+                        PartitionWorker.class.getName(), host, Integer.toString(port));
+                pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+                pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+                processes.add(pb.start());
+            } else {
+                Thread t = new Thread(() -> {
+                    try {
+                        PartitionWorker.serve(host, port);
+                    } catch (IOException e) {
+                        synchronized (workerErrors) {
+                            workerErrors.add(e);
+                        }
+                    }
+                }, "partition-worker-" + i);
+                t.setDaemon(true);
+                t.start();
+                threads.add(t);
+            }
+        }
+    }
+
+    /**
+     * Returns the classpath for worker JVMs: the location this module was loaded
+     * from. {@code java.class.path} is not used because it describes the launcher
+     * rather than the application when running inside a build tool such as
+     * {@code mvn exec:java}. Workers only need classes from this module.
+     *
+     * @return classpath entry, or {@code null} if the location is unknown
+     */
+    private static String workerClassPath() {
+        try {
+            CodeSource source = PartitionWorker.class.getProtectionDomain().getCodeSource();
+            if (source == null || source.getLocation() == null) {
+                return null;
+            }
+            return Path.of(source.getLocation().toURI()).toString();
+        } catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+}
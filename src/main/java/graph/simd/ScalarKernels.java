@@ -0,0 +1,25 @@
+package graph.simd;
+
+/**
+ * Plain loop implementations of {@link ArrayKernels}; the reference for
+ * {@link VectorKernels} and the fallback when the Vector API is unavailable.
+ */
+final class ScalarKernels {
+
+    private ScalarKernels() {
+        // utility class
+    }
+
+    static int argMax(long[] a) {
+        if (a.length == 0) {
+            return -1;
+        }
+        int best = 0;
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] > a[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,64 @@
+package graph.simd;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementations of {@link ArrayKernels}.
+ * <p>
+ * Every kernel processes full vectors of the preferred species and finishes
+ * the remaining tail with a scalar loop. This class must only be loaded when
+ * the {@code jdk.incubator.vector} module is resolved; {@link ArrayKernels}
+ * checks that before the first call.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+        // utility class
+    }
+
+    /**
+     * @return {@code true} if the preferred species holds more than one long,
+     *         i.e. the hardware has SIMD registers worth using
+     */
+    static boolean isUseful() {
+        return LONGS.length() > 1;
+    }
+
+    static int argMax(long[] a) {
+        if (a.length == 0) {
+            return -1;
+        }
+        int bound = LONGS.loopBound(a.length);
+        long best = Long.MIN_VALUE;
+        if (bound > 0) {
+            LongVector acc = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+            for (int i = 0; i < bound; i += LONGS.length()) {
+                acc = acc.max(LongVector.fromArray(LONGS, a, i));
+            }
+            best = acc.reduceLanes(VectorOperators.MAX);
+        }
+        for (int i = bound; i < a.length; i++) {
+            best = Math.max(best, a[i]);
+        }
+
+        // second pass: the first lane holding the maximum
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            VectorMask<Long> hit = LongVector.fromArray(LONGS, a, i).eq(best);
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == best) {
+                return i;
+            }
+        }
+        throw new AssertionError("maximum not found");
+    }
+}
@@ -0,0 +1,83 @@
+package app;
+
+import graph.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelJsonLoaderTest {
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.n(), actual.n());
+        assertEquals(expected.isDirected(), actual.isDirected());
+        for (int u = 0; u < expected.n(); u++) {
+            assertEquals(expected.neighbors(u).toString(), actual.neighbors(u).toString(), "edges of " + u);
+        }
+    }
+
+    @Test
+    public void testMatchesGsonOnDatasets() throws IOException {
+        for (String name : new String[]{"tasks.json", "tasks_small_1.json", "tasks_large_2.json"}) {
+            Path path = Path.of("data", name);
+            int[] source = new int[1];
+            Graph expected = Main.loadGraph(path.toString(), source);
+
+            for (int threads : new int[]{1, 3, 64}) {
+                ParallelJsonLoader.Loaded loaded = ParallelJsonLoader.load(path, threads);
+                assertEquals(source[0], (int) loaded.source);
+                assertEquals("edge", loaded.weightModel);
+                assertSameGraph(expected, loaded.toGraph());
+            }
+        }
+    }
+
+    @Test
+    public void testFieldsAfterEdgesAndIrregularWhitespace() throws IOException {
+        Random rnd = new Random(3);
+        StringBuilder json = new StringBuilder("{ \"n\" : 50,\n \"extra\": {\"a\": [1, 2]}, \"edges\":[\n");
+        Graph expected = new Graph(50, false);
+        for (int i = 0; i < 500; i++) {
+            int u = rnd.nextInt(50);
+            int v = rnd.nextInt(50);
+            int w = rnd.nextInt(100) - 50;
+            expected.addEdge(u, v, w);
+            json.append(i == 0 ? "" : ",").append(" ".repeat(rnd.nextInt(3)))
+                    .append("{\"w\":").append(w).append(", \"u\": ").append(u)
+                    .append(",\"v\" :").append(v).append("}\n");
+        }
+        json.append("],\n\"directed\": false, \"source\": 7, \"target\": null, \"weight_model\": \"edge\"}");
+
+        Path file = Files.createTempFile("tasks", ".json");
+        try {
+            Files.writeString(file, json);
+            for (int threads : new int[]{1, 4, 1000}) {
+                ParallelJsonLoader.Loaded loaded = ParallelJsonLoader.load(file, threads);
+                assertEquals(500, loaded.edgeCount());
+                assertEquals(7, (int) loaded.source);
+                assertNull(loaded.target);
+                assertSameGraph(expected, loaded.toGraph());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEmptyEdgeArray() throws IOException {
+        Path file = Files.createTempFile("tasks", ".json");
+        try {
+            Files.writeString(file, "{\"directed\": true, \"n\": 3, \"edges\": [ ]}");
+            ParallelJsonLoader.Loaded loaded = ParallelJsonLoader.load(file, 4);
+            assertEquals(0, loaded.edgeCount());
+            assertEquals(3, loaded.n);
+            assertTrue(loaded.directed);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
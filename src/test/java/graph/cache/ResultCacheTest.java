@@ -0,0 +1,168 @@
+package graph.cache;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.dagsp.DagShortestPaths;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static Graph sampleGraph(int extraWeight) {
+        Graph g = new Graph(6, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 2, 1);
+        g.addEdge(1, 2, 4);
+        g.addEdge(3, 4, 2);
+        g.addEdge(4, 5, extraWeight);
+        return g;
+    }
+
+    private static ResultCache.Entry analyze(Graph g) {
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).run();
+        Graph dag = CondensationGraphBuilder.buildCondensation(g, scc.compId, scc.components.size(), new Metrics());
+        List<Integer> topo = TopologicalSort.kahn(dag, new Metrics());
+        ResultCache.Entry entry = new ResultCache.Entry(scc, dag, topo);
+        int source = scc.compId[0];
+        entry.shortest.put(source, DagShortestPaths.shortestPaths(dag, source, new Metrics()));
+        entry.longest.put(source, DagShortestPaths.longestPaths(dag, source, new Metrics()));
+        return entry;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("result-cache");
+        try {
+            ResultCache cache = new ResultCache(dir, 1 << 20);
+            Graph g = sampleGraph(3);
+            String key = ResultCache.key(g);
+            assertNull(cache.load(key), "Empty cache must miss");
+
+            ResultCache.Entry stored = analyze(g);
+            cache.store(key, stored);
+            ResultCache.Entry loaded = cache.load(key);
+
+            assertNotNull(loaded);
+            assertArrayEquals(stored.scc.compId, loaded.scc.compId);
+            assertEquals(stored.scc.components, loaded.scc.components);
+            assertEquals(stored.topo, loaded.topo);
+            for (int u = 0; u < stored.dag.n(); u++) {
+                assertEquals(stored.dag.neighbors(u).toString(), loaded.dag.neighbors(u).toString());
+            }
+            int source = stored.scc.compId[0];
+            assertArrayEquals(stored.shortest.get(source).dist, loaded.shortest.get(source).dist);
+            assertArrayEquals(stored.longest.get(source).parent, loaded.longest.get(source).parent);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void testKeyDependsOnContent() {
+        assertEquals(ResultCache.key(sampleGraph(3)), ResultCache.key(sampleGraph(3)));
+        assertNotEquals(ResultCache.key(sampleGraph(3)), ResultCache.key(sampleGraph(4)));
+    }
+
+    @Test
+    public void testCorruptedFileIsRejected() throws IOException {
+        Path dir = Files.createTempDirectory("result-cache");
+        try {
+            ResultCache cache = new ResultCache(dir, 1 << 20);
+            Graph g = sampleGraph(3);
+            String key = ResultCache.key(g);
+            cache.store(key, analyze(g));
+
+            Path file = dir.resolve(key + ".bin");
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length / 2] ^= 0x5A;
+            Files.write(file, bytes);
+
+            assertNull(cache.load(key), "A file with a bad checksum must be treated as a miss");
+            assertFalse(Files.exists(file), "A corrupted file must be removed");
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedFileIsEvicted() throws IOException {
+        Path dir = Files.createTempDirectory("result-cache");
+        try {
+            Graph first = sampleGraph(1);
+            Graph second = sampleGraph(2);
+            Graph third = sampleGraph(3);
+            ResultCache probe = new ResultCache(dir, Long.MAX_VALUE);
+            probe.store(ResultCache.key(first), analyze(first));
+            long fileSize = Files.size(dir.resolve(ResultCache.key(first) + ".bin"));
+
+            ResultCache cache = new ResultCache(dir, 2 * fileSize);
+            cache.store(ResultCache.key(second), analyze(second));
+            Files.setLastModifiedTime(dir.resolve(ResultCache.key(first) + ".bin"), FileTime.fromMillis(1_000));
+            Files.setLastModifiedTime(dir.resolve(ResultCache.key(second) + ".bin"), FileTime.fromMillis(2_000));
+
+            // touching the first entry makes the second one the least recently used
+            assertNotNull(cache.load(ResultCache.key(first)));
+            cache.store(ResultCache.key(third), analyze(third));
+
+            assertNotNull(cache.load(ResultCache.key(first)));
+            assertNull(cache.load(ResultCache.key(second)));
+            assertNotNull(cache.load(ResultCache.key(third)));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void testStaleTemporaryFilesAreEvictedFirst() throws IOException {
+        Path dir = Files.createTempDirectory("result-cache");
+        try {
+            Graph first = sampleGraph(1);
+            Graph second = sampleGraph(2);
+            ResultCache probe = new ResultCache(dir, Long.MAX_VALUE);
+            probe.store(ResultCache.key(first), analyze(first));
+            long fileSize = Files.size(dir.resolve(ResultCache.key(first) + ".bin"));
+
+            // a crashed writer's leftover and a file another writer is still filling
+            Path stale = Files.write(dir.resolve("tmp-1.part"), new byte[(int) fileSize]);
+            Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 2 * 3_600_000L));
+            Path inFlight = Files.write(dir.resolve("tmp-2.part"), new byte[(int) fileSize]);
+
+            ResultCache cache = new ResultCache(dir, 2 * fileSize);
+            cache.store(ResultCache.key(second), analyze(second));
+
+            assertFalse(Files.exists(stale), "An abandoned temporary file counts and is evicted first");
+            assertTrue(Files.exists(inFlight), "A recent temporary file may still be written");
+            assertNotNull(cache.load(ResultCache.key(first)));
+            assertNotNull(cache.load(ResultCache.key(second)));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+}
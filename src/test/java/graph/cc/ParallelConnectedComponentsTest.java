@@ -0,0 +1,69 @@
+package graph.cc;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelConnectedComponentsTest {
+
+    @Test
+    public void testSmallUndirectedGraph() {
+        Graph g = new Graph(7, false);
+        g.addEdge(0, 3, 1);
+        g.addEdge(3, 5, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(6, 6, 1);
+
+        TarjanSCC.Result res = new ParallelConnectedComponents(g, new Metrics()).run();
+
+        assertEquals(4, res.components.size());
+        assertEquals(List.of(0, 3, 5), res.components.get(0));
+        assertEquals(List.of(1, 2), res.components.get(1));
+        assertEquals(List.of(4), res.components.get(2));
+        assertEquals(List.of(6), res.components.get(3));
+        assertArrayEquals(new int[]{0, 1, 1, 0, 2, 0, 3}, res.compId);
+    }
+
+    @Test
+    public void testMatchesTarjanOnRandomGraph() {
+        int n = 30_000;
+        Random rnd = new Random(5);
+        Graph g = new Graph(n, false);
+        for (int i = 0; i < 20_000; i++) {
+            g.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1);
+        }
+
+        TarjanSCC.Result expected = new TarjanSCC(g, new Metrics()).run();
+        TarjanSCC.Result actual = new ParallelConnectedComponents(g, new Metrics()).run();
+
+        assertEquals(expected.components.size(), actual.components.size());
+        for (int u = 0; u < n; u++) {
+            for (Graph.Edge e : g.neighbors(u)) {
+                assertEquals(actual.compId[u], actual.compId[e.to]);
+            }
+        }
+        // same partition: equal ids in one result imply equal ids in the other
+        int[] mapping = new int[expected.components.size()];
+        Arrays.fill(mapping, -1);
+        for (int v = 0; v < n; v++) {
+            int c = expected.compId[v];
+            if (mapping[c] == -1) {
+                mapping[c] = actual.compId[v];
+            }
+            assertEquals(mapping[c], actual.compId[v]);
+        }
+    }
+
+    @Test
+    public void testRejectsDirectedGraph() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelConnectedComponents(new Graph(2, true), new Metrics()));
+    }
+}
@@ -0,0 +1,131 @@
+package graph.common;
+
+import graph.dagsp.DagShortestPaths;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGraphTest {
+
+    private static Graph localGraph(int n, int m, int distinctWeights, long seed) {
+        Random rnd = new Random(seed);
+        Graph g = new Graph(n, true);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n);
+            int v = Math.min(n - 1, Math.max(0, u + rnd.nextInt(21) - 10));
+            g.addEdge(u, v, rnd.nextInt(distinctWeights));
+        }
+        return g;
+    }
+
+    @Test
+    public void testDecodesSameEdgesSortedByTarget() {
+        for (int distinct : new int[]{5, 100_000}) {
+            Graph g = localGraph(500, 3000, distinct, 7);
+            CompressedGraph cg = CompressedGraph.from(g);
+            assertEquals(3000, cg.edgeCount());
+
+            for (int v = 0; v < g.n(); v++) {
+                List<String> expected = new ArrayList<>();
+                for (Graph.Edge e : g.neighbors(v)) {
+                    expected.add(e.to + ":" + e.weight);
+                }
+                List<String> actual = new ArrayList<>();
+                int prev = -1;
+                CompressedGraph.Cursor it = cg.neighbors(v);
+                while (it.next()) {
+                    assertTrue(it.to() >= prev, "targets must be sorted");
+                    prev = it.to();
+                    actual.add(it.to() + ":" + it.weight());
+                }
+                assertEquals(cg.degree(v), actual.size());
+                expected.sort(null);
+                actual.sort(null);
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testWeightDictionaryLimit() {
+        for (int distinct : new int[]{256, 257}) {
+            Graph g = new Graph(distinct + 1, true);
+            Graph unweighted = new Graph(distinct + 1, true);
+            for (int i = 0; i < distinct; i++) {
+                // negative and large weights must survive the dictionary as well
+                g.addEdge(i, i + 1, (i % 2 == 0 ? -1 : 1) * i * 1000);
+                unweighted.addEdge(i, i + 1, 0);
+            }
+            CompressedGraph cg = CompressedGraph.from(g);
+            for (int i = 0; i < distinct; i++) {
+                CompressedGraph.Cursor it = cg.neighbors(i);
+                assertTrue(it.next());
+                assertEquals(g.neighbors(i).get(0).weight, it.weight());
+            }
+            // the unweighted copy has a one-entry dictionary: one byte per edge plus 4 bytes
+            long structureBytes = CompressedGraph.from(unweighted).memoryBytes() - distinct - 4;
+            long weightBytes = cg.memoryBytes() - structureBytes;
+            long varintBytes = 0;
+            for (int i = 0; i < distinct; i++) {
+                long zigzag = 2L * Math.abs(g.neighbors(i).get(0).weight) - (i % 2 == 0 && i > 0 ? 1 : 0);
+                varintBytes += zigzag < 1 << 7 ? 1 : zigzag < 1 << 14 ? 2 : 3;
+            }
+            assertEquals(distinct == 256 ? distinct + 4L * distinct : varintBytes, weightBytes,
+                    "up to 256 distinct weights are coded in one byte per edge");
+        }
+    }
+
+    @Test
+    public void testBytesPerEdgeOnLocalGraph() {
+        int n = 200_000;
+        Random rnd = new Random(5);
+        Graph g = new Graph(n, true);
+        for (int u = 0; u < n; u++) {
+            for (int k = 0; k < 2; k++) {
+                int v = Math.min(n - 1, Math.max(0, u + rnd.nextInt(21) - 10));
+                g.addEdge(u, v, 10 * rnd.nextInt(8));
+            }
+        }
+        CompressedGraph cg = CompressedGraph.from(g);
+        double bytesPerEdge = (double) cg.memoryBytes() / cg.edgeCount();
+        // an int target plus an int weight take 8 bytes per edge
+        assertTrue(bytesPerEdge <= 4.0, "bytes per edge: " + bytesPerEdge);
+    }
+
+    @Test
+    public void testAlgorithmsMatchOnCompressedGraph() {
+        Graph g = localGraph(2000, 6000, 8, 11);
+        CompressedGraph cg = CompressedGraph.from(g);
+
+        TarjanSCC.Result plain = new TarjanSCC(g, new Metrics()).run();
+        TarjanSCC.Result compressed = new TarjanSCC(cg, new Metrics()).run();
+        assertEquals(plain.components.size(), compressed.components.size());
+        for (int u = 0; u < g.n(); u++) {
+            for (Graph.Edge e : g.neighbors(u)) {
+                assertEquals(plain.compId[u] == plain.compId[e.to],
+                        compressed.compId[u] == compressed.compId[e.to]);
+            }
+        }
+
+        Graph dag = new Graph(g.n(), true);
+        for (int u = 0; u < g.n(); u++) {
+            for (Graph.Edge e : g.neighbors(u)) {
+                if (u < e.to) {
+                    dag.addEdge(u, e.to, e.weight);
+                }
+            }
+        }
+        CompressedGraph cdag = CompressedGraph.from(dag);
+        assertEquals(dag.n(), TopologicalSort.kahn(cdag, new Metrics()).size());
+        assertArrayEquals(DagShortestPaths.shortestPaths(dag, 0, new Metrics()).dist,
+                DagShortestPaths.shortestPaths(cdag, 0, new Metrics()).dist);
+        assertArrayEquals(DagShortestPaths.longestPaths(dag, 0, new Metrics()).dist,
+                DagShortestPaths.longestPaths(cdag, 0, new Metrics()).dist);
+    }
+}
@@ -0,0 +1,114 @@
+package graph.common;
+
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSnapshotTest {
+
+    @Test
+    public void testApplyLeavesOldVersionUnchanged() {
+        Graph g = new Graph(200, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        GraphSnapshot v0 = GraphSnapshot.of(g);
+
+        GraphSnapshot v1 = v0.apply(new GraphSnapshot.Delta()
+                .addEdge(150, 151, 2)
+                .addEdge(151, 150, 2)
+                .removeEdge(1, 0));
+
+        assertEquals(0, v0.version());
+        assertEquals(1, v1.version());
+        assertEquals(1, v0.neighbors(1).size());
+        assertTrue(v0.neighbors(150).isEmpty());
+        assertTrue(v1.neighbors(1).isEmpty());
+        assertEquals(151, v1.neighbors(150).get(0).to);
+
+        assertEquals(199, new TarjanSCC(v0, new Metrics()).run().components.size());
+        assertEquals(199, new TarjanSCC(v1, new Metrics()).run().components.size());
+    }
+
+    @Test
+    public void testUntouchedBlocksAreShared() {
+        GraphSnapshot v0 = GraphSnapshot.empty(10 * GraphSnapshot.BLOCK_SIZE, true);
+        GraphSnapshot v1 = v0.apply(new GraphSnapshot.Delta().addEdge(3, 5, 1));
+
+        assertFalse(v1.sharesBlockWith(v0, 3), "The touched block must be copied");
+        for (int b = 1; b < 10; b++) {
+            assertTrue(v1.sharesBlockWith(v0, b * GraphSnapshot.BLOCK_SIZE), "Block " + b + " must be shared");
+        }
+    }
+
+    @Test
+    public void testApplyCopiesOnlyThePathToTouchedBlocks() {
+        // three levels of tree nodes above the blocks
+        int blocks = 2 * GraphSnapshot.NODE_SIZE * GraphSnapshot.NODE_SIZE;
+        GraphSnapshot v0 = GraphSnapshot.empty(blocks * GraphSnapshot.BLOCK_SIZE, true);
+        GraphSnapshot v1 = v0.apply(new GraphSnapshot.Delta().addEdge(7, 9, 1));
+        assertEquals(3, v1.nodesNotSharedWith(v0), "only the root-to-block path is copied");
+
+        // two blocks under the same leaf node share the copied path
+        GraphSnapshot v2 = v1.apply(new GraphSnapshot.Delta()
+                .addEdge(GraphSnapshot.BLOCK_SIZE, 0, 1)
+                .addEdge(2 * GraphSnapshot.BLOCK_SIZE, 0, 1));
+        assertEquals(3, v2.nodesNotSharedWith(v1));
+        assertEquals(9, v2.neighbors(7).get(0).to);
+
+        // growing past the tree capacity adds a root above the old one
+        GraphSnapshot full = GraphSnapshot.empty(GraphSnapshot.NODE_SIZE * GraphSnapshot.BLOCK_SIZE, true)
+                .apply(new GraphSnapshot.Delta().addEdge(7, 9, 1));
+        GraphSnapshot grown = full.apply(new GraphSnapshot.Delta().addVertices(1).addEdge(full.n(), 7, 2));
+        assertEquals(2, grown.nodesNotSharedWith(full), "new root and new leaf node");
+        assertEquals(7, grown.neighbors(full.n()).get(0).to);
+        assertEquals(9, grown.neighbors(7).get(0).to);
+        assertTrue(grown.sharesBlockWith(full, 7));
+    }
+
+    @Test
+    public void testGrowthAndUndirectedMirroring() {
+        GraphSnapshot v0 = GraphSnapshot.empty(3, false);
+        GraphSnapshot v1 = v0.apply(new GraphSnapshot.Delta().addVertices(100).addEdge(2, 90, 4));
+
+        assertEquals(3, v0.n());
+        assertEquals(103, v1.n());
+        assertEquals(List.of(90), v1.neighbors(2).stream().map(e -> e.to).toList());
+        assertEquals(List.of(2), v1.neighbors(90).stream().map(e -> e.to).toList());
+
+        assertThrows(UnsupportedOperationException.class, () -> v1.addEdge(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> v1.apply(new GraphSnapshot.Delta().addEdge(0, 103, 1)));
+    }
+
+    @Test
+    public void testReadersSeeConsistentSnapshotsDuringUpdates() throws Exception {
+        int n = 1000;
+        VersionedGraph versioned = new VersionedGraph(GraphSnapshot.empty(n, true));
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> reader = readers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    GraphSnapshot s = versioned.current();
+                    // every commit adds a whole 2-cycle, so SCC count is n minus the committed pairs
+                    int pairs = (int) s.version();
+                    assertEquals(n - pairs, new TarjanSCC(s, new Metrics()).run().components.size());
+                }
+            });
+            for (int i = 0; i < n / 2; i++) {
+                versioned.commit(new GraphSnapshot.Delta()
+                        .addEdge(2 * i, 2 * i + 1, 1)
+                        .addEdge(2 * i + 1, 2 * i, 1));
+            }
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(n / 2, versioned.current().version());
+    }
+}
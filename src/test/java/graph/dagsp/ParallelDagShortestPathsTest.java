@@ -0,0 +1,128 @@
+package graph.dagsp;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelDagShortestPathsTest {
+
+    /** Random DAG with edges from lower to higher ids and small weights to force ties. */
+    private static Graph randomDag(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Graph g = new Graph(n, true);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n - 1);
+            int v = u + 1 + rnd.nextInt(Math.min(n - u - 1, 50));
+            g.addEdge(u, v, rnd.nextInt(4));
+        }
+        return g;
+    }
+
+    /** DAG of {@code levels} layers of {@code width} vertices with random edges between consecutive layers. */
+    private static Graph layeredDag(int levels, int width, int edgesPerVertex, long seed) {
+        Random rnd = new Random(seed);
+        Graph g = new Graph(levels * width, true);
+        for (int level = 0; level + 1 < levels; level++) {
+            for (int i = 0; i < width; i++) {
+                int u = level * width + i;
+                for (int k = 0; k < edgesPerVertex; k++) {
+                    g.addEdge(u, (level + 1) * width + rnd.nextInt(width), rnd.nextInt(4));
+                }
+            }
+        }
+        return g;
+    }
+
+    private static void assertSameResult(DagShortestPaths.Result expected, DagShortestPaths.Result actual) {
+        assertArrayEquals(expected.dist, actual.dist, "dist must match the sequential result");
+        assertArrayEquals(expected.parent, actual.parent, "parent must match the sequential result");
+    }
+
+    @Test
+    public void testMatchesSequentialOnSmallDag() {
+        Graph g = new Graph(5, true);
+        g.addEdge(0, 1, 2);
+        g.addEdge(0, 2, 5);
+        g.addEdge(1, 2, 1);
+        g.addEdge(1, 3, 2);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 3);
+
+        ParallelDagShortestPaths parallel = new ParallelDagShortestPaths(g);
+        assertEquals(5, parallel.levelCount(), "0 -> 1 -> 2 -> 3 -> 4 is a chain of five levels");
+
+        assertSameResult(DagShortestPaths.shortestPaths(g, 0, new Metrics()),
+                parallel.shortestPaths(0, new Metrics()));
+        assertSameResult(DagShortestPaths.longestPaths(g, 0, new Metrics()),
+                parallel.longestPaths(0, new Metrics()));
+    }
+
+    @Test
+    public void testMatchesSequentialOnWideDag() {
+        Graph g = randomDag(20_000, 80_000, 42);
+        ParallelDagShortestPaths parallel = new ParallelDagShortestPaths(g);
+
+        for (int source : new int[]{0, 17, 5000}) {
+            Metrics seqMetrics = new Metrics();
+            Metrics parMetrics = new Metrics();
+            assertSameResult(DagShortestPaths.shortestPaths(g, source, seqMetrics),
+                    parallel.shortestPaths(source, parMetrics));
+            assertEquals(seqMetrics.relaxations, parMetrics.relaxations);
+
+            assertSameResult(DagShortestPaths.longestPaths(g, source, new Metrics()),
+                    parallel.longestPaths(source, new Metrics()));
+        }
+    }
+
+    @Test
+    public void testMatchesSequentialOnLayeredDag() {
+        // each layer is wider than PARALLEL_THRESHOLD, so every level runs in parallel
+        int width = 4096;
+        Graph g = layeredDag(6, width, 3, 7);
+        // a single source in the first layer; the others stay unreached
+        Graph rooted = new Graph(g.n() + 1, true);
+        for (int u = 0; u < g.n(); u++) {
+            for (Graph.Edge e : g.neighbors(u)) {
+                rooted.addEdge(u, e.to, e.weight);
+            }
+        }
+        for (int i = 0; i < width; i += 2) {
+            rooted.addEdge(g.n(), i, i % 5);
+        }
+        ParallelDagShortestPaths parallel = new ParallelDagShortestPaths(rooted);
+        assertTrue(width >= ParallelDagShortestPaths.PARALLEL_THRESHOLD);
+
+        Metrics seqMetrics = new Metrics();
+        Metrics parMetrics = new Metrics();
+        assertSameResult(DagShortestPaths.shortestPaths(rooted, g.n(), seqMetrics),
+                parallel.shortestPaths(g.n(), parMetrics));
+        assertEquals(seqMetrics.relaxations, parMetrics.relaxations);
+        assertSameResult(DagShortestPaths.longestPaths(rooted, g.n(), new Metrics()),
+                parallel.longestPaths(g.n(), new Metrics()));
+    }
+
+    @Test
+    public void testEveryLevelParallelWithThresholdOne() {
+        Graph g = randomDag(20_000, 80_000, 42);
+        ParallelDagShortestPaths parallel = new ParallelDagShortestPaths(g, 1);
+
+        for (int source : new int[]{0, 17, 5000}) {
+            assertSameResult(DagShortestPaths.shortestPaths(g, source, new Metrics()),
+                    parallel.shortestPaths(source, new Metrics()));
+            assertSameResult(DagShortestPaths.longestPaths(g, source, new Metrics()),
+                    parallel.longestPaths(source, new Metrics()));
+        }
+    }
+
+    @Test
+    public void testRejectsCycle() {
+        Graph g = new Graph(2, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelDagShortestPaths(g));
+    }
+}
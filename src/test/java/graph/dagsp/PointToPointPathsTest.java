@@ -0,0 +1,97 @@
+package graph.dagsp;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointToPointPathsTest {
+
+    private static Graph sampleDag() {
+        Graph g = new Graph(7, true);
+        g.addEdge(0, 1, 2);
+        g.addEdge(0, 2, 5);
+        g.addEdge(1, 2, 1);
+        g.addEdge(1, 3, 2);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 3);
+        g.addEdge(5, 3, 1);
+        g.addEdge(1, 6, 4);
+        return g;
+    }
+
+    @Test
+    public void testMatchesSingleSourceResults() {
+        Graph g = sampleDag();
+        PointToPointPaths queries = PointToPointPaths.of(g, new Metrics());
+        DagShortestPaths.Result shortest = DagShortestPaths.shortestPaths(g, 0, new Metrics());
+        DagShortestPaths.Result longest = DagShortestPaths.longestPaths(g, 0, new Metrics());
+
+        for (int t : new int[]{0, 1, 2, 3, 4, 6}) {
+            PointToPointPaths.Result sp = queries.shortestPath(0, t, new Metrics());
+            PointToPointPaths.Result lp = queries.longestPath(0, t, new Metrics());
+            assertTrue(sp.isReachable());
+            assertEquals(shortest.dist[t], sp.distance, "shortest distance to " + t);
+            assertEquals(longest.dist[t], lp.distance, "longest distance to " + t);
+        }
+
+        assertEquals(List.of(0, 1, 3, 4), queries.shortestPath(0, 4, new Metrics()).path);
+        assertEquals(List.of(0, 2, 3, 4), queries.longestPath(0, 4, new Metrics()).path);
+    }
+
+    @Test
+    public void testUnreachableTarget() {
+        PointToPointPaths queries = PointToPointPaths.of(sampleDag(), new Metrics());
+
+        assertFalse(queries.shortestPath(0, 5, new Metrics()).isReachable());
+        assertFalse(queries.shortestPath(4, 0, new Metrics()).isReachable());
+        assertFalse(queries.longestPath(6, 4, new Metrics()).isReachable());
+    }
+
+    @Test
+    public void testRelaxesOnlyVerticesBetweenSourceAndTarget() {
+        PointToPointPaths queries = PointToPointPaths.of(sampleDag(), new Metrics());
+
+        Metrics metrics = new Metrics();
+        PointToPointPaths.Result res = queries.shortestPath(5, 4, metrics);
+        assertEquals(4L, res.distance);
+        assertEquals(List.of(5, 3, 4), res.path);
+        assertEquals(2, metrics.relaxations, "Only edges 5->3 and 3->4 lie between 5 and 4");
+    }
+
+    @Test
+    public void testNarrowBandFarApartInOrder() {
+        // a long chain 0 -> 1 -> ... plus many unrelated vertices that sort between its ends
+        int n = 5_000;
+        Random rnd = new Random(17);
+        Graph g = new Graph(n, true);
+        for (int v = 0; v + 100 < n; v += 100) {
+            g.addEdge(v, v + 100, 1 + rnd.nextInt(9));
+        }
+        for (int i = 0; i < 8_000; i++) {
+            int u = rnd.nextInt(n - 1);
+            int v = u + 1 + rnd.nextInt(Math.min(50, n - 1 - u));
+            if (u % 100 != 0) {
+                g.addEdge(u, v, 1 + rnd.nextInt(9));
+            }
+        }
+        PointToPointPaths queries = PointToPointPaths.of(g, new Metrics());
+        for (int source : new int[]{0, 37, 1200}) {
+            DagShortestPaths.Result shortest = DagShortestPaths.shortestPaths(g, source, new Metrics());
+            DagShortestPaths.Result longest = DagShortestPaths.longestPaths(g, source, new Metrics());
+            for (int t = 0; t < n; t += 7) {
+                PointToPointPaths.Result sp = queries.shortestPath(source, t, new Metrics());
+                assertEquals(shortest.dist[t] < Long.MAX_VALUE / 4, sp.isReachable(), "reachability of " + t);
+                if (sp.isReachable()) {
+                    assertEquals(shortest.dist[t], sp.distance, "shortest " + source + " -> " + t);
+                    assertEquals(longest.dist[t], queries.longestPath(source, t, new Metrics()).distance,
+                            "longest " + source + " -> " + t);
+                }
+            }
+        }
+    }
+}
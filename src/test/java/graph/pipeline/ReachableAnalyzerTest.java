@@ -0,0 +1,132 @@
+package graph.pipeline;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.dagsp.DagShortestPaths;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachableAnalyzerTest {
+
+    private static Graph sampleGraph() {
+        Graph g = new Graph(8, true);
+        g.addEdge(0, 1, 3);
+        g.addEdge(1, 2, 2);
+        g.addEdge(2, 3, 4);
+        g.addEdge(3, 1, 1);
+        g.addEdge(4, 5, 2);
+        g.addEdge(5, 6, 5);
+        g.addEdge(6, 7, 1);
+        g.addEdge(4, 7, 9);
+        return g;
+    }
+
+    @Test
+    public void testRegionContainsOnlyReachableVertices() {
+        ReachableAnalyzer analyzer = new ReachableAnalyzer(sampleGraph(), new Metrics());
+        ReachableAnalyzer.Region region = analyzer.regionFor(1);
+
+        assertEquals(3, region.size(), "Only 1, 2 and 3 are reachable from 1");
+        assertEquals(1, region.dag.n(), "The cycle 1-2-3 is a single component");
+        assertFalse(region.contains(0));
+        assertEquals(List.of(1, 2, 3), region.globalComponent(0).stream().sorted().toList());
+    }
+
+    @Test
+    public void testAnalysedVerticesAreNotAnalysedAgain() {
+        ReachableAnalyzer analyzer = new ReachableAnalyzer(sampleGraph(), new Metrics());
+        analyzer.regionFor(4);
+        ReachableAnalyzer.Region fromFive = analyzer.regionFor(5);
+
+        assertEquals(1, analyzer.analysisCount(), "5 is reachable from 4, so nothing new is analysed");
+        assertEquals(3, fromFive.size());
+        assertSame(fromFive, analyzer.regionFor(5), "Regions are cached per source component");
+
+        Metrics metrics = new Metrics();
+        ReachableAnalyzer spliced = new ReachableAnalyzer(sampleGraph(), metrics);
+        spliced.regionFor(1);
+        long visitsBefore = metrics.dfsVisits;
+        ReachableAnalyzer.Region fromZero = spliced.regionFor(0);
+
+        assertEquals(2, spliced.analysisCount());
+        assertEquals(4, spliced.analysedVertexCount(), "The region of 1 is reused, only 0 is new");
+        assertEquals(1, metrics.dfsVisits - visitsBefore, "Tarjan runs on vertex 0 alone");
+        assertEquals(4, fromZero.size());
+        assertEquals(2, fromZero.dag.n());
+        assertEquals(List.of(1, 2, 3), fromZero.globalComponent(fromZero.componentOf(3)).stream().sorted().toList());
+    }
+
+    @Test
+    public void testPathsMatchFullPipeline() {
+        Graph g = sampleGraph();
+        int source = 4;
+
+        TarjanSCC.Result full = new TarjanSCC(g, new Metrics()).run();
+        Graph fullDag = CondensationGraphBuilder.buildCondensation(
+                g, full.compId, full.components.size(), new Metrics());
+        DagShortestPaths.Result fullShortest =
+                DagShortestPaths.shortestPaths(fullDag, full.compId[source], new Metrics());
+        DagShortestPaths.Result fullLongest =
+                DagShortestPaths.longestPaths(fullDag, full.compId[source], new Metrics());
+
+        ReachableAnalyzer analyzer = new ReachableAnalyzer(g, new Metrics());
+        ReachableAnalyzer.Region region = analyzer.regionFor(source);
+        DagShortestPaths.Result shortest = analyzer.shortestPaths(source);
+        DagShortestPaths.Result longest = analyzer.longestPaths(source);
+
+        for (int v = 0; v < g.n(); v++) {
+            if (!region.contains(v)) {
+                continue;
+            }
+            int c = region.componentOf(v);
+            assertEquals(fullShortest.dist[full.compId[v]], shortest.dist[c]);
+            assertEquals(fullLongest.dist[full.compId[v]], longest.dist[c]);
+        }
+        assertSame(shortest, analyzer.shortestPaths(source), "Results must be cached per source component");
+    }
+
+    @Test
+    public void testSplicedRegionsMatchFullPipeline() {
+        int n = 2_000;
+        Random rnd = new Random(3);
+        Graph g = new Graph(n, true);
+        for (int i = 0; i < 2_600; i++) {
+            g.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(20));
+        }
+        TarjanSCC.Result full = new TarjanSCC(g, new Metrics()).run();
+        Graph fullDag = CondensationGraphBuilder.buildCondensation(
+                g, full.compId, full.components.size(), new Metrics());
+
+        ReachableAnalyzer analyzer = new ReachableAnalyzer(g, new Metrics());
+        for (int q = 0; q < 40; q++) {
+            int source = rnd.nextInt(n);
+            ReachableAnalyzer.Region region = analyzer.regionFor(source);
+            DagShortestPaths.Result fullShortest =
+                    DagShortestPaths.shortestPaths(fullDag, full.compId[source], new Metrics());
+            DagShortestPaths.Result fullLongest =
+                    DagShortestPaths.longestPaths(fullDag, full.compId[source], new Metrics());
+            DagShortestPaths.Result shortest = analyzer.shortestPaths(source);
+            DagShortestPaths.Result longest = analyzer.longestPaths(source);
+
+            int reachable = 0;
+            for (int v = 0; v < n; v++) {
+                boolean expected = fullShortest.dist[full.compId[v]] < Long.MAX_VALUE / 4;
+                assertEquals(expected, region.contains(v), "reachability of " + v + " from " + source);
+                if (expected) {
+                    reachable++;
+                    int c = region.componentOf(v);
+                    assertEquals(fullShortest.dist[full.compId[v]], shortest.dist[c]);
+                    assertEquals(fullLongest.dist[full.compId[v]], longest.dist[c]);
+                }
+            }
+            assertEquals(reachable, region.size());
+        }
+        assertTrue(analyzer.analysedVertexCount() <= n);
+    }
+}
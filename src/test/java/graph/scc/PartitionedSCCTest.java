@@ -0,0 +1,97 @@
+package graph.scc;
+
+import graph.common.Graph;
+import graph.common.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedSCCTest {
+
+    private static Graph randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        Graph g = new Graph(n, true);
+        for (int i = 0; i < m; i++) {
+            g.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(9));
+        }
+        return g;
+    }
+
+    /** Checks that both results describe the same SCCs and the same condensation DAG. */
+    private static void assertMatchesTarjan(Graph g, PartitionedSCC.Result actual) {
+        TarjanSCC.Result expected = new TarjanSCC(g, new Metrics()).run();
+        int compCount = expected.components.size();
+        assertEquals(compCount, actual.scc.components.size(), "number of SCCs");
+
+        int[] mapping = new int[compCount];
+        Arrays.fill(mapping, -1);
+        for (int v = 0; v < g.n(); v++) {
+            int c = expected.compId[v];
+            if (mapping[c] == -1) {
+                mapping[c] = actual.scc.compId[v];
+            }
+            assertEquals(mapping[c], actual.scc.compId[v], "vertex " + v + " is in a different SCC");
+            assertTrue(actual.scc.components.get(actual.scc.compId[v]).contains(v));
+        }
+
+        Graph dag = CondensationGraphBuilder.buildCondensation(g, expected.compId, compCount, new Metrics());
+        Set<String> expectedEdges = new HashSet<>();
+        for (int u = 0; u < compCount; u++) {
+            for (Graph.Edge e : dag.neighbors(u)) {
+                expectedEdges.add(mapping[u] + "->" + mapping[e.to] + "(w=" + e.weight + ")");
+            }
+        }
+        Set<String> actualEdges = new HashSet<>();
+        for (int u = 0; u < actual.condensation.n(); u++) {
+            for (Graph.Edge e : actual.condensation.neighbors(u)) {
+                actualEdges.add(u + "->" + e.to + "(w=" + e.weight + ")");
+            }
+        }
+        assertEquals(expectedEdges, actualEdges, "condensation edges");
+    }
+
+    @Test
+    public void testCycleAcrossAllPartitions() throws IOException {
+        Graph g = new Graph(9, true);
+        for (int v = 0; v < 8; v++) {
+            g.addEdge(v, v + 1, 1);
+        }
+        g.addEdge(8, 0, 1);
+
+        PartitionedSCC.Result res = new PartitionedSCC(g, 3, PartitionedSCC.Mode.THREADS, new Metrics()).run();
+        assertEquals(1, res.scc.components.size(), "The 9-cycle spans every partition but is one SCC");
+        assertEquals(1, res.condensation.n());
+    }
+
+    @Test
+    public void testMatchesTarjanOnRandomGraphs() throws IOException {
+        for (int seed = 0; seed < 5; seed++) {
+            Graph g = randomGraph(400, 500 + 100 * seed, seed);
+            for (int partitions : new int[]{1, 2, 7}) {
+                PartitionedSCC.Result res =
+                        new PartitionedSCC(g, partitions, PartitionedSCC.Mode.THREADS, new Metrics()).run();
+                assertMatchesTarjan(g, res);
+            }
+        }
+    }
+
+    @Test
+    public void testWorkerProcesses() throws IOException {
+        Graph g = randomGraph(200, 320, 99);
+        // inside a build tool java.class.path may not contain the project classes
+        String classPath = System.getProperty("java.class.path");
+        System.setProperty("java.class.path", "launcher-only.jar");
+        try {
+            PartitionedSCC.Result res = new PartitionedSCC(g, 2, PartitionedSCC.Mode.PROCESSES, new Metrics()).run();
+            assertMatchesTarjan(g, res);
+        } finally {
+            System.setProperty("java.class.path", classPath);
+        }
+    }
+}
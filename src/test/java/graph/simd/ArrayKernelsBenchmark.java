@@ -0,0 +1,143 @@
+package graph.simd;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of {@link ScalarKernels} and {@link VectorKernels}.
+ * <p>
+ * It also keeps the vectorized fill and in-degree zero scan that were tried for
+ * the setup phases of the DAG algorithms and lost to {@link Arrays#fill} and the
+ * plain loop, so that the comparison can be repeated on other hardware. The
+ * in-degree array mimics a large, shallow DAG: {@code zeroPercent} of the
+ * vertices are sources. Run it in its own JVM so that JMH can pass the real
+ * classpath to the forked benchmark JVMs ({@code exec:java} would hand them
+ * Maven's launcher classpath instead):
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-classpath %classpath graph.simd.ArrayKernelsBenchmark"
+ * </pre>
+ * Forked JVMs get {@code --add-modules jdk.incubator.vector}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ArrayKernelsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"1", "10"})
+    int zeroPercent;
+
+    int[] indeg;
+    int[] frontier;
+    long[] dist;
+    int[] parent;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        indeg = new int[size];
+        frontier = new int[size];
+        dist = new long[size];
+        parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            indeg[i] = rnd.nextInt(100) < zeroPercent ? 0 : 1 + rnd.nextInt(4);
+            dist[i] = rnd.nextInt(1_000_000);
+        }
+    }
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Benchmark
+    public int collectZerosScalar() {
+        int count = 0;
+        for (int i = 0; i < indeg.length; i++) {
+            if (indeg[i] == 0) {
+                frontier[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int collectZerosVector() {
+        int count = 0;
+        int bound = INTS.loopBound(indeg.length);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            // zeros are usually sparse; only rescan the lanes when one matched
+            if (IntVector.fromArray(INTS, indeg, i).eq(0).anyTrue()) {
+                for (int j = i; j < i + INTS.length(); j++) {
+                    if (indeg[j] == 0) {
+                        frontier[count++] = j;
+                    }
+                }
+            }
+        }
+        for (; i < indeg.length; i++) {
+            if (indeg[i] == 0) {
+                frontier[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int argMaxScalar() {
+        return ScalarKernels.argMax(dist);
+    }
+
+    @Benchmark
+    public int argMaxVector() {
+        return VectorKernels.argMax(dist);
+    }
+
+    @Benchmark
+    public int[] fillScalar() {
+        Arrays.fill(parent, -1);
+        return parent;
+    }
+
+    @Benchmark
+    public int[] fillVector() {
+        IntVector v = IntVector.broadcast(INTS, -1);
+        int bound = INTS.loopBound(parent.length);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            v.intoArray(parent, i);
+        }
+        for (; i < parent.length; i++) {
+            parent[i] = -1;
+        }
+        return parent;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ArrayKernelsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,46 @@
+package graph.simd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ArrayKernelsTest {
+
+    private static boolean vectorModulePresent() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    @Test
+    public void testScalarArgMax() {
+        assertEquals(2, ScalarKernels.argMax(new long[]{4, 1, 9, 9, -3}), "first maximum wins");
+        assertEquals(-1, ScalarKernels.argMax(new long[0]));
+    }
+
+    @Test
+    public void testVectorMatchesScalar() {
+        assumeTrue(vectorModulePresent(), "run with --add-modules jdk.incubator.vector");
+        Random rnd = new Random(11);
+        // every length up to a few vectors covers the empty, tail-only and full-vector cases
+        for (int len = 0; len < 200; len++) {
+            long[] dist = new long[len];
+            for (int i = 0; i < len; i++) {
+                dist[i] = rnd.nextInt(50) - 25;
+            }
+            assertEquals(ScalarKernels.argMax(dist), VectorKernels.argMax(dist), "argMax, length " + len);
+        }
+    }
+
+    @Test
+    public void testArgMaxWithExtremeValues() {
+        long[] dist = new long[37];
+        Arrays.fill(dist, Long.MIN_VALUE);
+        dist[36] = Long.MIN_VALUE + 1;
+        assertEquals(36, ArrayKernels.argMax(dist));
+        Arrays.fill(dist, Long.MIN_VALUE);
+        assertEquals(0, ArrayKernels.argMax(dist), "all equal: first index");
+    }
+}